@@ -0,0 +1,119 @@
+package com.backend.benchmark;
+
+import com.backend.model.Address;
+import com.backend.model.Animal;
+import com.backend.model.Message;
+import com.backend.model.MultiMedia;
+import com.backend.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic entity graphs shaped like production rows, shared by the
+ * conversion and serialization benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String[] SPECIES = {"Dog", "Cat", "Rabbit", "Parrot", "Hamster"};
+    private static final String[] BREEDS = {"Labrador", "Siamese", "Holland Lop", "African Grey", "Syrian", "Beagle"};
+    private static final String[] CITIES = {"Iasi", "Cluj-Napoca", "Bucharest", "Timisoara", "Brasov"};
+
+    private BenchmarkData() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUserId((long) i + 1);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPhone("07" + String.format("%08d", i));
+            user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i));
+
+            Address address = new Address();
+            address.setAddressId((long) i + 1);
+            address.setStreet("Strada Lunga " + i);
+            address.setCity(CITIES[i % CITIES.length]);
+            address.setState("RO");
+            address.setZipCode(700000 + i);
+            address.setCountry("Romania");
+            address.setUser(user);
+            user.setAddress(address);
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Animals with one to three media rows each, owned round-robin by {@code owners}.
+     */
+    static List<Animal> animals(int count, List<User> owners) {
+        Random random = new Random(42);
+        List<Animal> animals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Animal animal = new Animal();
+            animal.setAnimalId((long) i + 1);
+            animal.setName("Animal " + i);
+            animal.setSpecies(SPECIES[i % SPECIES.length]);
+            animal.setBreed(BREEDS[i % BREEDS.length]);
+            animal.setAge(1 + random.nextInt(15));
+            animal.setViews(random.nextInt(5000));
+            animal.setGender(i % 2 == 0 ? Animal.Gender.male : Animal.Gender.female);
+            animal.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            animal.setUser(owners.get(i % owners.size()));
+
+            int mediaCount = 1 + random.nextInt(3);
+            List<MultiMedia> media = new ArrayList<>(mediaCount);
+            for (int m = 0; m < mediaCount; m++) {
+                MultiMedia multiMedia = new MultiMedia();
+                multiMedia.setId((long) i * 4 + m);
+                multiMedia.setMedia(MultiMedia.MediaType.photo);
+                multiMedia.setUrl("/server/photo/" + Long.toHexString(random.nextLong()) + ".jpg");
+                multiMedia.setDescription("Photo " + m + " of " + animal.getName());
+                multiMedia.setUploadDate(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+                multiMedia.setAnimal(animal);
+                media.add(multiMedia);
+            }
+            animal.setMultimedia(media);
+            animals.add(animal);
+        }
+        return animals;
+    }
+
+    /**
+     * A conversation of {@code count} messages alternating between two users.
+     */
+    static List<Message> conversation(int count, User first, User second) {
+        List<Message> messages = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            Message message = new Message();
+            message.setMessageId((long) i + 1);
+            message.setSender(i % 2 == 0 ? first : second);
+            message.setReceiver(i % 2 == 0 ? second : first);
+            message.setContent("Hi, is the animal from listing " + i + " still available for adoption?");
+            message.setTimestamp(start.plusMinutes(i));
+            message.setIsRead(i < count - 3);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /**
+     * Rows as returned by {@code findConversationsAsSender/AsReceiver}: (other user, last message time).
+     */
+    static List<Object[]> conversationRows(List<User> others, int offsetMinutes) {
+        List<Object[]> rows = new ArrayList<>(others.size());
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int i = 0; i < others.size(); i++) {
+            rows.add(new Object[]{others.get(i), start.plusMinutes(i * 7L + offsetMinutes)});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.benchmark;
+
+import com.backend.service.ChecksumEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File exchange checksums on multi-MB inputs: the previous per-call
+ * {@code MessageDigest.getInstance} plus {@code String.format("%02x")}
+ * encoding against {@link ChecksumEngine}'s SHA-256 and CRC32C paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    @Param({"1048576", "16777216"})
+    private int size;
+
+    private final ChecksumEngine engine = new ChecksumEngine();
+    private byte[] data;
+    private Path file;
+    private List<String> fileChecksums;
+
+    @Setup
+    public void setUp() throws IOException {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        file = Files.createTempFile("checksum-bench", ".bin");
+        Files.write(file, data);
+
+        fileChecksums = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fileChecksums.add(engine.sha256(new byte[] {(byte) i}));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String legacySha256Bytes() throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[] digest = md.digest(data);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String sha256Bytes() {
+        return engine.sha256(data);
+    }
+
+    @Benchmark
+    public String sha256File() throws IOException {
+        return engine.sha256(file);
+    }
+
+    @Benchmark
+    public String crc32cBytes() {
+        return engine.crc32c(data);
+    }
+
+    @Benchmark
+    public String crc32cFile() throws IOException {
+        return engine.crc32c(file);
+    }
+
+    @Benchmark
+    public String packageChecksum() {
+        return engine.packageChecksum(fileChecksums);
+    }
+}
@@ -0,0 +1,65 @@
+package com.backend.benchmark;
+
+import com.backend.service.CrossPlatformFileExchangeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GZIP round trip of {@link CrossPlatformFileExchangeService#compressData}
+ * and {@code decompressData} for a JSON package payload (compressible) and
+ * photo bytes (already compressed, so GZIP only costs CPU). Checksums on
+ * the same paths are measured by {@link ChecksumBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"json", "media"})
+    private String content;
+
+    @Param({"65536", "1048576"})
+    private int size;
+
+    private CrossPlatformFileExchangeService exchangeService;
+    private byte[] data;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        // compressData/decompressData touch none of the collaborators
+        exchangeService = new CrossPlatformFileExchangeService(
+            null, null, null, null, null, null, null, null, null, null, null);
+
+        if (content.equals("json")) {
+            StringBuilder json = new StringBuilder("{\"files\":[");
+            for (int i = 0; json.length() < size; i++) {
+                json.append("{\"fileName\":\"").append(i).append(".jpg\",\"mediaType\":\"photo\",")
+                    .append("\"checksum\":\"").append(String.format("%064x", i * 2654435761L)).append("\",")
+                    .append("\"description\":\"Photo of animal ").append(i % 1000).append("\"},");
+            }
+            data = json.substring(0, size).getBytes(StandardCharsets.UTF_8);
+        } else {
+            data = new byte[size];
+            new Random(42).nextBytes(data);
+        }
+        compressed = exchangeService.compressData(data);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return exchangeService.compressData(data);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        return exchangeService.decompressData(compressed);
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.benchmark;
+
+import com.backend.dto.AnimalResponse;
+import com.backend.model.Animal;
+import com.backend.model.User;
+import com.backend.repository.AnimalRepository;
+import com.backend.repository.MessageRepository;
+import com.backend.service.AnimalService;
+import com.backend.service.MessageService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Entity to response conversion on the list endpoints, without the
+ * database: {@code /animals/all} ({@code convertToAnimalResponse} per row),
+ * {@code /messages/conversation} and {@code /messages/conversations} (the
+ * per-row map building and merge in {@link MessageService}). Repositories
+ * are stubs returning prebuilt entity graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private AnimalService animalService;
+    private MessageService messageService;
+
+    @Setup
+    public void setUp() {
+        List<User> users = BenchmarkData.users(Math.max(2, rows / 5));
+        List<Animal> animals = BenchmarkData.animals(rows, users);
+
+        AnimalRepository animalRepository = mock(AnimalRepository.class);
+        when(animalRepository.findAll()).thenReturn(animals);
+        animalService = new AnimalService(animalRepository, null, null, null, null, null, null, null);
+
+        List<User> partners = BenchmarkData.users(rows);
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.findConversation(1L, 2L))
+            .thenReturn(BenchmarkData.conversation(rows, users.get(0), users.get(1)));
+        // Half the partners appear on both sides, so the merge path is exercised
+        when(messageRepository.findConversationsAsSender(1L))
+            .thenReturn(BenchmarkData.conversationRows(partners, 0));
+        when(messageRepository.findConversationsAsReceiver(1L))
+            .thenReturn(BenchmarkData.conversationRows(partners.subList(rows / 2, rows), 3));
+        messageService = new MessageService(messageRepository, null, null);
+    }
+
+    @Benchmark
+    public List<AnimalResponse> allAnimals() {
+        return animalService.getAllAnimals();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> conversation() {
+        return messageService.getConversation(1L, 2L);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> conversations() {
+        return messageService.getConversations(1L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.backend.benchmark;
+
+import com.backend.dto.AnimalDetailResponse;
+import com.backend.model.Animal;
+import com.backend.model.FeedingSchedule;
+import com.backend.repository.AnimalRepository;
+import com.backend.repository.FeedingScheduleRepository;
+import com.backend.repository.MedicalHistoryRepository;
+import com.backend.repository.MultiMediaRepository;
+import com.backend.repository.RelationsRepository;
+import com.backend.service.AnimalService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feeding-time parsing for the three shapes the FEEDING_TIME column comes
+ * back in: the raw VARRAY constructor text, Oracle timestamps, and plain
+ * {@code HH:MM:SS} lists. Covers {@link FeedingSchedule#getFeedingTimes()}
+ * and the extraction in {@code AnimalService.getAnimalDetailById}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedingTimeBenchmark {
+
+    @Param({"varray", "timestamp", "plain"})
+    private String format;
+
+    private FeedingSchedule schedule;
+    private AnimalService animalService;
+
+    @Setup
+    public void setUp() {
+        String feedingTime = switch (format) {
+            case "varray" -> "FEEDING_TIME_ARRAY('07:30:00', '12:00:00', '18:45:00')";
+            case "timestamp" -> "01/05/25 07:30:00.000000000, 01/05/25 12:00:00.000000000, 01/05/25 18:45:00.000000000";
+            default -> "07:30:00,12:00:00,18:45:00";
+        };
+        schedule = new FeedingSchedule();
+        schedule.setFeedingTime(feedingTime);
+
+        Animal animal = BenchmarkData.animals(1, BenchmarkData.users(1)).get(0);
+        AnimalRepository animalRepository = mock(AnimalRepository.class);
+        when(animalRepository.findById(1L)).thenReturn(Optional.of(animal));
+        FeedingScheduleRepository feedingScheduleRepository = mock(FeedingScheduleRepository.class);
+        when(feedingScheduleRepository.findFeedingScheduleWithExtractedTimes(1L))
+            .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, feedingTime, "Dry food", "Twice a day"}));
+        animalService = new AnimalService(animalRepository, null, mock(MedicalHistoryRepository.class),
+            feedingScheduleRepository, mock(RelationsRepository.class), mock(MultiMediaRepository.class), null, null);
+    }
+
+    @Benchmark
+    public List<String> entityFeedingTimes() {
+        return schedule.getFeedingTimes();
+    }
+
+    @Benchmark
+    public Optional<AnimalDetailResponse> animalDetail() {
+        return animalService.getAnimalDetailById(1L);
+    }
+}
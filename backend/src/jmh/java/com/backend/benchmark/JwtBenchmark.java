@@ -0,0 +1,73 @@
+package com.backend.benchmark;
+
+import com.backend.security.AuthenticatedUser;
+import com.backend.service.ChecksumEngine;
+import com.backend.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token cost in {@link JwtService}: issuing a token at sign-in,
+ * and authenticating a request both when the verified claims are cached
+ * and when every call has to parse and check the HMAC signature (a service
+ * with a zero-size claims cache cycling through distinct tokens).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+    private static final int TOKENS = 64;
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cached = jwtService(10_000);
+        uncached = jwtService(0);
+        token = cached.generateToken(42L, false);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = uncached.generateToken((long) i, i % 10 == 0);
+        }
+    }
+
+    private static JwtService jwtService(int claimsCacheEntries) {
+        JwtService service = new JwtService(new ChecksumEngine());
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "keyId", "k1");
+        ReflectionTestUtils.setField(service, "previousSecretKey", "");
+        ReflectionTestUtils.setField(service, "previousKeyId", "");
+        ReflectionTestUtils.setField(service, "legacyTokensAcceptUntil", "");
+        ReflectionTestUtils.setField(service, "expiration", TimeUnit.HOURS.toMillis(24));
+        ReflectionTestUtils.setField(service, "claimsCacheMaxEntries", claimsCacheEntries);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generateToken(42L, false);
+    }
+
+    @Benchmark
+    public AuthenticatedUser authenticateCached() {
+        return cached.authenticate(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser authenticateUncached() {
+        next = (next + 1) & (TOKENS - 1);
+        return uncached.authenticate(tokens[next]);
+    }
+}
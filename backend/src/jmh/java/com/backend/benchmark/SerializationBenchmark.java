@@ -0,0 +1,67 @@
+package com.backend.benchmark;
+
+import com.backend.config.SerializationConfig;
+import com.backend.dto.AnimalResponse;
+import com.backend.model.Animal;
+import com.backend.model.User;
+import com.backend.repository.AnimalRepository;
+import com.backend.repository.MessageRepository;
+import com.backend.service.AnimalService;
+import com.backend.service.MessageService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Response bodies through the application's {@link ObjectMapper} from
+ * {@link SerializationConfig}: the {@code /animals/all} list and a
+ * {@code /messages/conversation} map list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<AnimalResponse> animals;
+    private List<Map<String, Object>> conversation;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new SerializationConfig().objectMapper();
+
+        List<User> users = BenchmarkData.users(Math.max(2, rows / 5));
+        List<Animal> entities = BenchmarkData.animals(rows, users);
+        AnimalRepository animalRepository = mock(AnimalRepository.class);
+        when(animalRepository.findAll()).thenReturn(entities);
+        animals = new AnimalService(animalRepository, null, null, null, null, null, null, null).getAllAnimals();
+
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.findConversation(1L, 2L))
+            .thenReturn(BenchmarkData.conversation(rows, users.get(0), users.get(1)));
+        conversation = new MessageService(messageRepository, null, null).getConversation(1L, 2L);
+    }
+
+    @Benchmark
+    public byte[] writeAnimals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(animals);
+    }
+
+    @Benchmark
+    public byte[] writeConversation() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(conversation);
+    }
+}
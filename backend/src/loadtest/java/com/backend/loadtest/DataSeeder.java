@@ -0,0 +1,176 @@
+package com.backend.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Fills the empty schema with deterministic data at production-like
+ * volumes. Every table is populated with one set-based
+ * {@code INSERT ... SELECT FROM SYSTEM_RANGE}, so a million messages take
+ * seconds rather than minutes. Ids are assigned explicitly (1..n) so that
+ * {@link LoadDriver} can pick valid users, animals, conversation partners
+ * and photos without querying.
+ */
+@RequiredArgsConstructor
+@Slf4j
+class DataSeeder {
+
+    static final String[] SPECIES = {"Dog", "Cat", "Rabbit", "Parrot", "Hamster"};
+    static final String[] CITIES = {"Iasi", "Cluj-Napoca", "Bucharest", "Timisoara", "Brasov", "Constanta"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestOptions options;
+
+    /**
+     * Conversation partner {@code k} (0-based, below {@code options.partners()})
+     * of a user, matching how messages are seeded.
+     */
+    static long partner(long userId, int k, int users) {
+        return (userId + k) % users + 1;
+    }
+
+    static String photoName(long index) {
+        return "lt-" + index + ".jpg";
+    }
+
+    void seed(Path uploadDir) throws IOException {
+        long started = System.currentTimeMillis();
+        int users = options.users();
+        String password = new BCryptPasswordEncoder(10).encode("loadtest");
+
+        insert("USERS", users, """
+            INSERT INTO USERS (USERID, FIRSTNAME, LASTNAME, EMAIL, PASSWORD, PHONE, CREATEDAT)
+            SELECT X, 'First' || X, 'Last' || X, 'user' || X || '@loadtest.local', ?,
+                   '07' || LPAD(X, 8, '0'), DATEADD('MINUTE', X, TIMESTAMP '2023-01-01 00:00:00')
+            FROM SYSTEM_RANGE(1, ?)
+            """, password, users);
+
+        insert("ADDRESS", users, """
+            INSERT INTO ADDRESS (ADDRESSID, USERID, STREET, CITY, STATE, ZIPCODE, COUNTRY)
+            SELECT X, X, 'Strada Lunga ' || MOD(X, 300), %s, 'RO', 700000 + MOD(X, 9000), 'Romania'
+            FROM SYSTEM_RANGE(1, ?)
+            """.formatted(pick(CITIES)), users);
+
+        int animals = options.animals();
+        insert("ANIMAL", animals, """
+            INSERT INTO ANIMAL (ANIMALID, USERID, NAME, BREED, SPECIES, AGE, VIEWS, GENDER, CREATEDAT)
+            SELECT X, MOD(X * 7919, ?) + 1, 'Animal ' || X, 'Breed ' || MOD(X, 40), %s,
+                   1 + MOD(X, 15), MOD(X * 31, 5000), CASE WHEN MOD(X, 2) = 0 THEN 'male' ELSE 'female' END,
+                   DATEADD('MINUTE', X, TIMESTAMP '2024-01-01 00:00:00')
+            FROM SYSTEM_RANGE(1, ?)
+            """.formatted(pick(SPECIES)), users, animals);
+
+        // Two photos for every third animal, one for the rest
+        insert("MULTIMEDIA", animals, """
+            INSERT INTO MULTIMEDIA (ID, ANIMALID, MEDIA, URL, DESCRIPTION, UPLOAD_DATE)
+            SELECT X, X, 'photo', '/server/photo/lt-' || MOD(X, ?) || '.jpg', 'Photo of animal ' || X,
+                   DATEADD('DAY', MOD(X, 365), DATE '2024-01-01')
+            FROM SYSTEM_RANGE(1, ?)
+            """, options.photos(), animals);
+        insert("MULTIMEDIA", animals / 3, """
+            INSERT INTO MULTIMEDIA (ID, ANIMALID, MEDIA, URL, DESCRIPTION, UPLOAD_DATE)
+            SELECT ? + X, X * 3, 'photo', '/server/photo/lt-' || MOD(X * 7, ?) || '.jpg', 'Second photo of animal ' || X * 3,
+                   DATEADD('DAY', MOD(X, 365), DATE '2024-01-01')
+            FROM SYSTEM_RANGE(1, ?)
+            """, animals, options.photos(), animals / 3);
+
+        insert("FEEDINGSCHEDULE", animals, """
+            INSERT INTO FEEDINGSCHEDULE (ID, ANIMALID, FEEDING_TIME, FOOD_TYPE, NOTES)
+            SELECT X, X, FEEDING_TIME_ARRAY('07:30:00', '12:00:00', '18:45:00'),
+                   CASE WHEN MOD(X, 2) = 0 THEN 'Dry food' ELSE 'Wet food' END, 'Fresh water at all times'
+            FROM SYSTEM_RANGE(1, ?)
+            """, animals);
+
+        insert("MEDICALHISTORY", animals * 2, """
+            INSERT INTO MEDICALHISTORY (ID, ANIMALID, VETNUMBER, RECORDDATE, DESCRIPTION, FIRST_AID_NOTED)
+            SELECT X, (X + 1) / 2, 'VET-' || MOD(X, 500), DATEADD('DAY', -MOD(X, 700), DATE '2025-01-01'),
+                   'Routine check-up and vaccination ' || X, 'None'
+            FROM SYSTEM_RANGE(1, ?)
+            """, animals * 2);
+
+        insert("RELATIONS", animals / 2, """
+            INSERT INTO RELATIONS (ID, ANIMALID, FRIENDWITH)
+            SELECT X, X * 2, 'Gets along with cats and children'
+            FROM SYSTEM_RANGE(1, ?)
+            """, animals / 2);
+
+        // Sender cycles through the users; the receiver is one of the sender's partners
+        insert("MESSAGES", options.messages(), """
+            INSERT INTO MESSAGES (MESSAGEID, SENDERID, RECEIVERID, CONTENT, TIMESTAMP, ISREAD)
+            SELECT X, MOD(X, ?) + 1, MOD(MOD(X, ?) + 1 + MOD(X / ?, ?), ?) + 1,
+                   'Hello! Is animal ' || MOD(X, 1000) || ' still available for adoption? I could visit this weekend.',
+                   DATEADD('SECOND', X * 30, TIMESTAMP '2024-01-01 00:00:00'), CASE WHEN MOD(X, 10) = 0 THEN 0 ELSE 1 END
+            FROM SYSTEM_RANGE(1, ?)
+            """, users, users, users, options.partners(), users, options.messages());
+
+        insert("NEWSLETTER", users, """
+            INSERT INTO NEWSLETTER (ID, USERID, SPECIES, ISACTIVE, SUBSCRIBEDAT)
+            SELECT X, X, %s, 1, TIMESTAMP '2024-06-01 00:00:00'
+            FROM SYSTEM_RANGE(1, ?)
+            """.formatted(pick(SPECIES)), users);
+
+        // Let rows created during the run take ids after the seeded ones
+        restartIdentity("USERS", "USERID", users);
+        restartIdentity("ADDRESS", "ADDRESSID", users);
+        restartIdentity("ANIMAL", "ANIMALID", animals);
+        restartIdentity("MULTIMEDIA", "ID", animals + animals / 3);
+        restartIdentity("FEEDINGSCHEDULE", "ID", animals);
+        restartIdentity("MEDICALHISTORY", "ID", animals * 2L);
+        restartIdentity("RELATIONS", "ID", animals / 2);
+        restartIdentity("MESSAGES", "MESSAGEID", options.messages());
+        restartIdentity("NEWSLETTER", "ID", users);
+        jdbcTemplate.execute("ANALYZE");
+
+        writePhotos(uploadDir.resolve("photo"));
+        log.info("Seeded database in {} s", (System.currentTimeMillis() - started) / 1000.0);
+    }
+
+    /**
+     * SQL picking one of the values round-robin by X.
+     */
+    private static String pick(String[] values) {
+        StringBuilder sql = new StringBuilder("CASE MOD(X, ").append(values.length).append(')');
+        for (int i = 0; i < values.length; i++) {
+            sql.append(" WHEN ").append(i).append(" THEN '").append(values[i]).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+
+    private void insert(String table, long rows, String sql, Object... args) {
+        if (rows <= 0) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int inserted = jdbcTemplate.update(sql, args);
+        log.info("  {}: {} rows in {} ms", table, inserted, System.currentTimeMillis() - started);
+    }
+
+    private void restartIdentity(String table, String column, long seeded) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + (seeded + 1));
+    }
+
+    /**
+     * Photo files of {@code photoBytes} each behind a JPEG signature, shared
+     * round-robin by the MULTIMEDIA rows.
+     */
+    private void writePhotos(Path photoDir) throws IOException {
+        Files.createDirectories(photoDir);
+        Random random = new Random(42);
+        byte[] content = new byte[options.photoBytes()];
+        for (int i = 0; i < options.photos(); i++) {
+            random.nextBytes(content);
+            content[0] = (byte) 0xFF;
+            content[1] = (byte) 0xD8;
+            content[2] = (byte) 0xFF;
+            Files.write(photoDir.resolve(photoName(i)), content);
+        }
+        log.info("  {} photo files of {} bytes in {}", options.photos(), options.photoBytes(), photoDir);
+    }
+}
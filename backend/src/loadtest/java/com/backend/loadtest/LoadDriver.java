@@ -0,0 +1,301 @@
+package com.backend.loadtest;
+
+import com.backend.service.JwtService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load: each client thread sends a request, waits for the
+ * full response body, then immediately sends the next one. The endpoint is
+ * picked by the configured weights. Requests are made as random seeded
+ * users against random seeded animals, conversations and photos. Latencies
+ * are recorded only after the warm-up period.
+ */
+@Slf4j
+class LoadDriver {
+
+    enum Endpoint {
+        ANIMALS_ALL("animals.all", "GET /animals/all"),
+        ANIMALS_DETAILS("animals.details", "POST /animals/details"),
+        MESSAGES_CONVERSATION("messages.conversation", "POST /messages/conversation"),
+        MESSAGES_CONVERSATIONS("messages.conversations", "GET /messages/conversations"),
+        SERVER_PHOTO("server.photo", "GET /server/photo/{filename}");
+
+        private final String key;
+        private final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        static Endpoint byKey(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint " + key + ", expected one of "
+                + Arrays.stream(values()).map(endpoint -> endpoint.key).toList());
+        }
+    }
+
+    /**
+     * Latencies and throughput count successful (2xx) responses only.
+     */
+    record EndpointResult(String endpoint, long requests, long errors, double throughputPerSecond,
+                          double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+                          double p999Millis, double maxMillis) {
+    }
+
+    record Report(int users, int animals, int messages, int clients, int warmupSeconds, int durationSeconds,
+                  long requests, long errors, double throughputPerSecond, List<EndpointResult> endpoints) {
+    }
+
+    private static final int MAX_TOKEN_USERS = 2000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private final URI baseUri;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final String[] tokens;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final LongAdder completed = new LongAdder();
+
+    LoadDriver(URI baseUri, LoadTestOptions options, JwtService jwtService) {
+        this.baseUri = baseUri;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        tokens = new String[Math.min(options.users(), MAX_TOKEN_USERS)];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtService.generateToken(userIdOf(i), false);
+        }
+
+        endpoints = options.mix().keySet().toArray(new Endpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += options.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Users the clients act as, spread over the whole id range.
+     */
+    private long userIdOf(int tokenIndex) {
+        return (long) tokenIndex * options.users() / tokens.length + 1;
+    }
+
+    Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmup());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.duration());
+
+        List<Client> clients = new ArrayList<>(options.clients());
+        List<Thread> threads = new ArrayList<>(options.clients());
+        for (int i = 0; i < options.clients(); i++) {
+            Client client = new Client(new SplittableRandom(42 + i), measureFrom, end);
+            clients.add(client);
+            Thread thread = new Thread(client, "loadtest-client-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        log.info("Running {} client(s): {} s warm-up, {} s measured", options.clients(), options.warmup(), options.duration());
+        long lastCount = 0;
+        long lastTime = start;
+        while (System.nanoTime() < end) {
+            TimeUnit.SECONDS.sleep(5);
+            long now = System.nanoTime();
+            long count = completed.sum();
+            log.info("  {} s: {} req/s{}", TimeUnit.NANOSECONDS.toSeconds(now - start),
+                Math.round((count - lastCount) / ((now - lastTime) / 1e9)), now < measureFrom ? " (warm-up)" : "");
+            lastCount = count;
+            lastTime = now;
+        }
+        for (Thread thread : threads) {
+            thread.join(REQUEST_TIMEOUT.toMillis());
+        }
+
+        double seconds = options.duration();
+        List<EndpointResult> results = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        for (Endpoint endpoint : endpoints) {
+            long[] latencies = new long[0];
+            long endpointErrors = 0;
+            for (Client client : clients) {
+                latencies = concat(latencies, client.latencies.get(endpoint).toArray());
+                endpointErrors += client.errors.get(endpoint);
+            }
+            Arrays.sort(latencies);
+            results.add(new EndpointResult(endpoint.label, latencies.length + endpointErrors, endpointErrors,
+                latencies.length / seconds, mean(latencies),
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                percentile(latencies, 99.9), latencies.length == 0 ? 0 : millis(latencies[latencies.length - 1])));
+            requests += latencies.length + endpointErrors;
+            errors += endpointErrors;
+        }
+        return new Report(options.users(), options.animals(), options.messages(), options.clients(),
+            options.warmup(), options.duration(), requests, errors, (requests - errors) / seconds, results);
+    }
+
+    private final class Client implements Runnable {
+
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long end;
+        private final Map<Endpoint, LongList> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+
+        private Client(SplittableRandom random, long measureFrom, long end) {
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (Endpoint endpoint : endpoints) {
+                latencies.put(endpoint, new LongList());
+                errors.put(endpoint, 0L);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < end) {
+                Endpoint endpoint = pick(random);
+                HttpRequest request = request(endpoint, random);
+                long started = System.nanoTime();
+                boolean ok;
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    ok = response.statusCode() / 100 == 2;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long finished = System.nanoTime();
+                completed.increment();
+                if (started >= measureFrom && finished <= end) {
+                    if (ok) {
+                        latencies.get(endpoint).add(finished - started);
+                    } else {
+                        errors.merge(endpoint, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+    }
+
+    private Endpoint pick(SplittableRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+        int tokenIndex = random.nextInt(tokens.length);
+        long userId = userIdOf(tokenIndex);
+        return switch (endpoint) {
+            case ANIMALS_ALL -> get("/animals/all", tokens[tokenIndex]);
+            case ANIMALS_DETAILS -> post("/animals/details",
+                "{\"animalId\":" + (1 + random.nextInt(options.animals())) + "}", tokens[tokenIndex]);
+            case MESSAGES_CONVERSATION -> post("/messages/conversation",
+                "{\"otherUserId\":" + DataSeeder.partner(userId, random.nextInt(options.partners()), options.users()) + "}",
+                tokens[tokenIndex]);
+            case MESSAGES_CONVERSATIONS -> get("/messages/conversations", tokens[tokenIndex]);
+            case SERVER_PHOTO -> get("/server/photo/" + DataSeeder.photoName(random.nextInt(options.photos())), null);
+        };
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String json, String token) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted nanosecond latencies, in milliseconds.
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return millis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double mean(long[] latencies) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (long latency : latencies) {
+            sum += latency;
+        }
+        return millis(sum / latencies.length);
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.backend.loadtest;
+
+import com.backend.BackendApplication;
+import com.backend.service.JwtService;
+import com.backend.service.SubscriptionIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * End-to-end load test without Oracle. Boots the full application with the
+ * {@code loadtest} Spring profile (in-memory H2 in Oracle mode, schema
+ * created by Hibernate, {@link OracleSqlShim} for the Oracle-only SQL).
+ * It then seeds the data, drives the HTTP API over loopback and prints
+ * throughput and latency percentiles per endpoint. The same report is
+ * written as JSON for comparing runs.
+ * <p>
+ * Run with {@code mvn -P loadtest test-compile exec:exec -Dloadtest.args="clients=32 duration=120"};
+ * see {@link LoadTestOptions} for all options.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        LoadDriver.Report report;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("loadtest")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            OracleSqlShim.install(jdbcTemplate);
+            log.info("Seeding {} users, {} animals, {} messages", options.users(), options.animals(), options.messages());
+            new DataSeeder(jdbcTemplate, options)
+                .seed(Paths.get(context.getEnvironment().getRequiredProperty("file.upload.dir")));
+            // Loaded at startup, before there was anything to load
+            context.getBean(SubscriptionIndex.class).rebuild();
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            report = new LoadDriver(URI.create("http://127.0.0.1:" + port), options, context.getBean(JwtService.class))
+                .run();
+        }
+
+        print(report);
+        Path output = Paths.get(options.output());
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.println("Report written to " + output.toAbsolutePath());
+        System.exit(report.errors() == 0 ? 0 : 1);
+    }
+
+    private static void print(LoadDriver.Report report) {
+        System.out.printf("%nDataset: %d users, %d animals, %d messages. %d clients, %d s measured after %d s warm-up%n%n",
+            report.users(), report.animals(), report.messages(), report.clients(), report.durationSeconds(),
+            report.warmupSeconds());
+        String format = "%-32s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n";
+        System.out.printf(format, "Endpoint", "Requests", "Errors", "Req/s",
+            "Mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        for (LoadDriver.EndpointResult result : report.endpoints()) {
+            System.out.printf(format, result.endpoint(), result.requests(), result.errors(),
+                decimal(result.throughputPerSecond()), decimal(result.meanMillis()), decimal(result.p50Millis()),
+                decimal(result.p90Millis()), decimal(result.p99Millis()), decimal(result.p999Millis()),
+                decimal(result.maxMillis()));
+        }
+        System.out.printf("%-32s %9d %7d %9s%n%n", "Total", report.requests(), report.errors(),
+            decimal(report.throughputPerSecond()));
+    }
+
+    private static String decimal(double value) {
+        return String.format("%.2f", value);
+    }
+}
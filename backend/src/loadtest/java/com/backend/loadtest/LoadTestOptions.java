@@ -0,0 +1,88 @@
+package com.backend.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load test settings, given on the command line as {@code key=value}
+ * (e.g. {@code clients=32 duration=120 mix=animals.details=3,server.photo=1}).
+ *
+ * @param users       seeded users
+ * @param animals     seeded animals (each with photos, feeding schedule, medical history)
+ * @param messages    seeded messages
+ * @param partners    conversation partners per user the messages are spread over
+ * @param photos      distinct photo files on disk
+ * @param photoBytes  size of each photo file
+ * @param clients     concurrent clients, each sending its next request as soon as the previous completes
+ * @param warmup      seconds of load before measuring starts
+ * @param duration    measured seconds
+ * @param mix         relative weight per endpoint, see {@link LoadDriver.Endpoint}
+ * @param output      JSON report file
+ */
+record LoadTestOptions(int users, int animals, int messages, int partners, int photos, int photoBytes,
+                       int clients, int warmup, int duration, Map<LoadDriver.Endpoint, Integer> mix,
+                       String output) {
+
+    private static final Set<String> KEYS = Set.of("users", "animals", "messages", "partners", "photos",
+        "photo-bytes", "clients", "warmup", "duration", "mix", "output");
+
+    // /animals/all returns every animal, so it is weighted far below the rest
+    private static final String DEFAULT_MIX =
+        "animals.all=1,animals.details=400,messages.conversation=300,messages.conversations=200,server.photo=400";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, equals).replaceFirst("^--", "");
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option: " + key + ", expected one of " + KEYS);
+            }
+            values.put(key, arg.substring(equals + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+            intValue(values, "users", 10_000),
+            intValue(values, "animals", 100_000),
+            intValue(values, "messages", 1_000_000),
+            intValue(values, "partners", 10),
+            intValue(values, "photos", 200),
+            intValue(values, "photo-bytes", 256 * 1024),
+            intValue(values, "clients", 16),
+            intValue(values, "warmup", 15),
+            intValue(values, "duration", 60),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+            values.getOrDefault("output", "target/loadtest-result.json"));
+        if (options.users() < 2 || options.partners() >= options.users() || options.animals() < 1 || options.photos() < 1) {
+            throw new IllegalArgumentException("Need users >= 2, partners < users, animals >= 1 and photos >= 1");
+        }
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+
+    private static Map<LoadDriver.Endpoint, Integer> parseMix(String mix) {
+        Map<LoadDriver.Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            int equals = entry.lastIndexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected endpoint=weight in mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(entry.substring(equals + 1).trim());
+            if (weight > 0) {
+                weights.put(LoadDriver.Endpoint.byKey(entry.substring(0, equals).trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix selects no endpoint");
+        }
+        return weights;
+    }
+}
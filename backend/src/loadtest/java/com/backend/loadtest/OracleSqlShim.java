@@ -0,0 +1,55 @@
+package com.backend.loadtest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.regex.Pattern;
+
+/**
+ * Makes the Oracle-specific SQL in the application run on H2.
+ * <ul>
+ *   <li>{@code FEEDING_TIME} is a {@code feeding_time_array} VARRAY in Oracle.
+ *       Here it is a plain VARCHAR holding the comma-joined times, and
+ *       {@code feeding_time_array(...)} is an H2 alias that builds that string.</li>
+ *   <li>The native query that unnests the VARRAY with {@code TABLE(...)} and
+ *       {@code LISTAGG} is rewritten to read the column directly. It returns
+ *       the same five columns in the same order.</li>
+ * </ul>
+ * Registered as Hibernate's statement inspector by the loadtest profile, so it
+ * sees every statement Hibernate prepares, native queries included.
+ */
+public class OracleSqlShim implements StatementInspector {
+
+    private static final Pattern FEEDING_SCHEDULE_UNNEST = Pattern.compile(
+        "TABLE\\s*\\(\\s*fs\\.FEEDING_TIME\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private static final String FEEDING_SCHEDULE_SELECT = """
+        SELECT fs.ID, fs.ANIMALID, fs.FEEDING_TIME AS FEEDING_TIME_STRING, fs.FOOD_TYPE, fs.NOTES
+        FROM FEEDINGSCHEDULE fs
+        WHERE fs.ANIMALID = ?
+        """;
+
+    /**
+     * Create the SQL functions the application calls but H2 lacks. Run once
+     * the schema exists.
+     */
+    public static void install(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS FEEDING_TIME_ARRAY FOR '"
+            + OracleSqlShim.class.getName() + ".feedingTimeArray'");
+    }
+
+    /**
+     * H2 implementation of the {@code feeding_time_array} constructor.
+     */
+    public static String feedingTimeArray(String... times) {
+        return String.join(",", times);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (FEEDING_SCHEDULE_UNNEST.matcher(sql).find()) {
+            return FEEDING_SCHEDULE_SELECT;
+        }
+        return sql;
+    }
+}
@@ -3,12 +3,15 @@ package com.backend.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     @Bean(name = "messageThreadPoolTaskExecutor")
@@ -19,7 +22,7 @@ public class AsyncConfig {
         executor.setQueueCapacity(200);
         executor.setThreadNamePrefix("Message-");
         executor.setKeepAliveSeconds(60);
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
 
@@ -35,11 +38,95 @@ public class AsyncConfig {
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("General-");
         executor.setKeepAliveSeconds(60);
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()));
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
 
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Bounded pool for file reads and hashing during package export. Sized to the
+     * core count; CallerRunsPolicy throttles submitters when the queue fills.
+     */
+    @Bean(name = "fileIoThreadPoolTaskExecutor")
+    public Executor fileIoThreadPoolTaskExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("FileIO-");
+        executor.setKeepAliveSeconds(60);
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background package export/import jobs. Deliberately small and without
+     * CallerRunsPolicy: when it is full, submitting a job fails instead of
+     * running the job on the request thread.
+     */
+    @Bean(name = "exchangeJobThreadPoolTaskExecutor")
+    public Executor exchangeJobThreadPoolTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("ExchangeJob-");
+        executor.setKeepAliveSeconds(60);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy()));
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * bcrypt hashing for sign-in and sign-up. One thread per core, since the
+     * work is pure CPU; when the queue is full further logins are rejected
+     * rather than run on the request thread.
+     */
+    @Bean(name = "passwordHashingThreadPoolTaskExecutor")
+    public Executor passwordHashingThreadPoolTaskExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 16);
+        executor.setThreadNamePrefix("PasswordHash-");
+        executor.setKeepAliveSeconds(60);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy()));
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Newsletter delivery. A single thread keeps SMTP pacing simple; events
+     * beyond the queue are dropped (and logged) rather than delaying requests.
+     */
+    @Bean(name = "newsletterThreadPoolTaskExecutor")
+    public Executor newsletterThreadPoolTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("Newsletter-");
+        executor.setKeepAliveSeconds(60);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy()));
+
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,29 @@
+package com.backend.config;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rejections before handing them to the pool's actual policy, so
+ * saturation shows up in metrics even when CallerRunsPolicy absorbs it.
+ */
+public class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final RejectedExecutionHandler delegate;
+    private final LongAdder rejected = new LongAdder();
+
+    public CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.increment();
+        delegate.rejectedExecution(task, executor);
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.config;
+
+import com.backend.security.AuthRateLimiter;
+import com.backend.service.DomainEventLog;
+import com.backend.service.MediaGarbageCollector;
+import com.backend.service.NewsletterDispatcher;
+import com.backend.service.RealTimeMessageService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Application metrics on top of what actuator already provides (HTTP
+ * request and repository invocation timers, Hikari pool, executor pool
+ * sizes and queue depth): rejection counts for our executors, online
+ * sessions, and the counters kept by the rate limiter, event log, media GC
+ * and newsletter dispatcher. {@link TimedAspect} enables {@code @Timed}
+ * on the services that run native SQL.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder executorRejectionMetrics(Map<String, Executor> executors) {
+        return registry -> executors.forEach((name, executor) -> {
+            if (executor instanceof ThreadPoolTaskExecutor pool
+                    && pool.getThreadPoolExecutor().getRejectedExecutionHandler() instanceof CountingRejectedExecutionHandler counter) {
+                FunctionCounter.builder("executor.rejected", counter, CountingRejectedExecutionHandler::getRejectedCount)
+                    .description("Tasks rejected because the pool and its queue were full")
+                    .tag("name", name)
+                    .register(registry);
+            }
+        });
+    }
+
+    @Bean
+    public MeterBinder sessionMetrics(RealTimeMessageService realTimeMessageService) {
+        return registry -> {
+            Gauge.builder("messaging.online.users", realTimeMessageService, RealTimeMessageService::getOnlineUserCount)
+                .description("Users with at least one registered messaging session")
+                .register(registry);
+            Gauge.builder("messaging.sessions.active", realTimeMessageService, RealTimeMessageService::getActiveSessionCount)
+                .description("Registered messaging sessions")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder componentStatsMetrics(AuthRateLimiter authRateLimiter, DomainEventLog domainEventLog,
+                                             MediaGarbageCollector mediaGarbageCollector,
+                                             NewsletterDispatcher newsletterDispatcher) {
+        return registry -> {
+            fromStats(registry, "auth.rate_limit.allowed", authRateLimiter, AuthRateLimiter::getStats, "ipAllowed", "key", "ip");
+            fromStats(registry, "auth.rate_limit.rejected", authRateLimiter, AuthRateLimiter::getStats, "ipRejected", "key", "ip");
+            fromStats(registry, "auth.rate_limit.allowed", authRateLimiter, AuthRateLimiter::getStats, "emailAllowed", "key", "email");
+            fromStats(registry, "auth.rate_limit.rejected", authRateLimiter, AuthRateLimiter::getStats, "emailRejected", "key", "email");
+
+            fromStats(registry, "events.log.written", domainEventLog, DomainEventLog::getStats, "written");
+            fromStats(registry, "events.log.dropped", domainEventLog, DomainEventLog::getStats, "dropped");
+            fromStats(registry, "events.log.write.failures", domainEventLog, DomainEventLog::getStats, "writeFailures");
+
+            fromStats(registry, "media.gc.files.deleted", mediaGarbageCollector, MediaGarbageCollector::getStats, "filesDeleted");
+            fromStats(registry, "media.gc.bytes.reclaimed", mediaGarbageCollector, MediaGarbageCollector::getStats, "bytesReclaimed");
+
+            fromStats(registry, "newsletter.mail.sent", newsletterDispatcher, NewsletterDispatcher::getStats, "sent");
+            fromStats(registry, "newsletter.mail.failed", newsletterDispatcher, NewsletterDispatcher::getStats, "failed");
+            fromStats(registry, "newsletter.mail.retries", newsletterDispatcher, NewsletterDispatcher::getStats, "retries");
+            Gauge.builder("newsletter.digest.pending", newsletterDispatcher,
+                    dispatcher -> ((Number) dispatcher.getStats().get("digestPending")).doubleValue())
+                .description("New-animal events waiting for their digest window")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Expose one entry of a component's {@code getStats()} map as a counter.
+     * The counter only holds its state object weakly, so that must be the
+     * component bean itself, not a method reference nothing else keeps alive.
+     */
+    private static <T> void fromStats(MeterRegistry registry, String name, T component,
+                                      Function<T, ? extends Map<String, ?>> stats, String key, String... tags) {
+        FunctionCounter.builder(name, component, source -> {
+                Object value = stats.apply(source).get(key);
+                return value instanceof Number number ? number.doubleValue() : 0;
+            })
+            .tags(tags)
+            .register(registry);
+    }
+}
@@ -1,5 +1,10 @@
 package com.backend.config;
 
+import com.backend.security.JsonSecurityErrorHandler;
+import com.backend.security.JwtAuthenticationFilter;
+import com.backend.service.JwtService;
+import jakarta.servlet.DispatcherType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -7,6 +12,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -17,19 +23,35 @@ import java.util.List;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@RequiredArgsConstructor
 public class SecurityConfig {
     
+    private final JwtService jwtService;
+    private final JsonSecurityErrorHandler securityErrorHandler;
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(securityErrorHandler)
+                .accessDeniedHandler(securityErrorHandler)
+            )
             .authorizeHttpRequests(authz -> authz
+                // Async and error dispatches belong to a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 // Public endpoints (no authentication required)
                 .requestMatchers("/users/login", "/users/signup", "/admin/login").permitAll()
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
-                // All other endpoints allow access (authentication handled in controllers)
+                // Admin-only user management
+                .requestMatchers("/users/all/**", "/users/delete").hasRole("ADMIN")
+                // Endpoints that need a signed-in user
+                .requestMatchers("/users/me", "/animals/**", "/messages/**", "/newsletter/**", "/api/files/**",
+                    "/upload/sessions/**").authenticated()
+                // Media serving and uploads stay open
                 .anyRequest().permitAll()
             );
         
@@ -1,12 +1,15 @@
 package com.backend.controller;
 
+import com.backend.security.AuthRateLimiter;
 import com.backend.service.AdminService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequiredArgsConstructor
@@ -14,9 +17,17 @@ import java.util.Map;
 public class AdminController {
     
     private final AdminService adminService;
+    private final AuthRateLimiter authRateLimiter;
     
     @PostMapping("/admin/login")
-    public ResponseEntity<?> adminLogin(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> adminLogin(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
+        long retryAfter = authRateLimiter.check(httpRequest, request.get("email"));
+        if (retryAfter > 0) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many attempts, please try again later");
+            return ResponseEntity.status(429).header("Retry-After", String.valueOf(retryAfter)).body(error);
+        }
+        
         try {
             String email = request.get("email");
             String password = request.get("password");
@@ -34,6 +45,10 @@ public class AdminController {
             response.put("token", token);
             
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(503).header("Retry-After", "1").body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
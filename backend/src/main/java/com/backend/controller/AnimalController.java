@@ -5,13 +5,13 @@ import com.backend.dto.AnimalCreationRequest.MedicalHistoryCreationRequest;
 import com.backend.dto.AnimalCreationRequest.FeedingScheduleCreationRequest;
 import com.backend.dto.AnimalCreationRequest.MultimediaCreationRequest;
 import com.backend.dto.AnimalCreationRequest.RelationsCreationRequest;
+import com.backend.security.AuthenticatedUser;
 import com.backend.service.AnimalService;
-import com.backend.service.JwtService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -26,18 +26,10 @@ import java.util.Optional;
 public class AnimalController {
     
     private final AnimalService animalService;
-    private final JwtService jwtService;
     
     @GetMapping("/animals/all")
-    public ResponseEntity<?> getAllAnimals(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getAllAnimals() {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
-            
             List<AnimalResponse> animals = animalService.getAllAnimals();
             return ResponseEntity.ok(animals);
         } catch (Exception e) {
@@ -48,17 +40,11 @@ public class AnimalController {
     }
 
     @PostMapping("/animals/details")
-    public ResponseEntity<?> getAnimalDetailsById(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getAnimalDetailsById(@RequestBody Map<String, Object> request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
             log.debug("Received animal details request: {}", request);
             
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                log.warn("Authentication failed for animal details request");
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
             
             log.debug("User authenticated: {}", userId);
             
@@ -70,7 +56,7 @@ public class AnimalController {
             }
             
             Long animalId = Long.valueOf(request.get("animalId").toString());
-            log.info("Getting details for animal ID: {} requested by user ID: {}", animalId, userId);
+            log.debug("Getting details for animal ID: {} requested by user ID: {}", animalId, userId);
             
             try {
                 animalService.incrementViews(animalId);
@@ -82,7 +68,7 @@ public class AnimalController {
             // Get detailed animal information
             Optional<AnimalDetailResponse> animalDetail = animalService.getAnimalDetailById(animalId);
             if (animalDetail.isPresent()) {
-                log.info("Successfully retrieved details for animal ID: {}", animalId);
+                log.debug("Successfully retrieved details for animal ID: {}", animalId);
                 return ResponseEntity.ok(animalDetail.get());
             } else {
                 log.warn("Animal not found with ID: {}", animalId);
@@ -104,15 +90,8 @@ public class AnimalController {
     }
 
     @PostMapping("/animals/species")
-    public ResponseEntity<?> getAnimalsBySpecies(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getAnimalsBySpecies(@RequestBody Map<String, String> request) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
-            
             String species = request.get("species");
             if (species == null) {
                 Map<String, String> error = new HashMap<>();
@@ -136,16 +115,11 @@ public class AnimalController {
     }
 
     @PostMapping("/animals/create")
-    public ResponseEntity<?> createAnimal(@RequestBody AnimalCreationRequest request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> createAnimal(@RequestBody AnimalCreationRequest request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
-            log.info("Creating basic animal for user ID: {}", userId);
+            log.debug("Creating basic animal for user ID: {}", userId);
             
             // Create only basic animal info
             AnimalRequest basicRequest = new AnimalRequest();
@@ -157,7 +131,7 @@ public class AnimalController {
             
             AnimalResponse animal = animalService.createBasicAnimal(userId, basicRequest);
             
-            log.info("Basic animal created successfully with ID: {}", animal.getAnimalId());
+            log.debug("Basic animal created successfully with ID: {}", animal.getAnimalId());
             
             return ResponseEntity.ok(animal);
         } catch (Exception e) {
@@ -169,15 +143,8 @@ public class AnimalController {
     }
 
     @DeleteMapping("/animals/delete")
-    public ResponseEntity<?> deleteAnimal(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> deleteAnimal(@RequestBody Map<String, Object> request) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
-            
             Long animalId = Long.valueOf(request.get("animalId").toString());
             
             animalService.deleteAnimal(animalId);
@@ -192,24 +159,8 @@ public class AnimalController {
     }
 
     @GetMapping("/animals/top-by-city")
-    public ResponseEntity<?> getTopAnimalsByCity(@RequestParam Long userId, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getTopAnimalsByCity(@RequestParam Long userId) {
         try {
-            // Check if user is authenticated
-            String authHeader = httpRequest.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Access denied. Please log in.");
-                return ResponseEntity.status(403).body(error);
-            }
-
-            String token = authHeader.substring(7);
-            Long tokenUserId = jwtService.extractUserId(token);
-            if (tokenUserId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Invalid token");
-                return ResponseEntity.status(401).body(error);
-            }
-
             List<AnimalResponse> animals = animalService.getTopAnimalsByUserCity(userId);
             return ResponseEntity.ok(animals);
         } catch (Exception e) {
@@ -218,33 +169,15 @@ public class AnimalController {
             return ResponseEntity.status(500).body(error);
         }
     }
-    
-    private Long extractUserIdFromToken(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                return jwtService.extractUserId(token);
-            } catch (Exception e) {
-                return null;
-            }
-        }
-        return null;
-    }
 
     @PostMapping("/animals/{animalId}/medical-history")
     public ResponseEntity<?> addMedicalHistory(@PathVariable Long animalId, 
                                              @RequestBody List<MedicalHistoryCreationRequest> medicalHistoryRequests,
-                                             HttpServletRequest httpRequest) {
+                                             @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
-            log.info("Adding medical history for animal ID: {} by user ID: {}", animalId, userId);
+            log.debug("Adding medical history for animal ID: {} by user ID: {}", animalId, userId);
             animalService.addMedicalHistory(animalId, medicalHistoryRequests);
             
             Map<String, String> response = new HashMap<>();
@@ -261,16 +194,11 @@ public class AnimalController {
     @PostMapping("/animals/{animalId}/feeding-schedule")
     public ResponseEntity<?> addFeedingSchedule(@PathVariable Long animalId,
                                               @RequestBody List<FeedingScheduleCreationRequest> feedingScheduleRequests,
-                                              HttpServletRequest httpRequest) {
+                                              @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
-            log.info("Adding feeding schedule for animal ID: {} by user ID: {}", animalId, userId);
+            log.debug("Adding feeding schedule for animal ID: {} by user ID: {}", animalId, userId);
             animalService.addFeedingSchedule(animalId, feedingScheduleRequests);
             
             Map<String, String> response = new HashMap<>();
@@ -287,16 +215,11 @@ public class AnimalController {
     @PostMapping("/animals/{animalId}/multimedia")
     public ResponseEntity<?> addMultimedia(@PathVariable Long animalId,
                                          @RequestBody List<MultimediaCreationRequest> multimediaRequests,
-                                         HttpServletRequest httpRequest) {
+                                         @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
-            log.info("Adding multimedia for animal ID: {} by user ID: {}", animalId, userId);
+            log.debug("Adding multimedia for animal ID: {} by user ID: {}", animalId, userId);
             animalService.addMultimedia(animalId, multimediaRequests);
             
             Map<String, String> response = new HashMap<>();
@@ -313,16 +236,11 @@ public class AnimalController {
     @PostMapping("/animals/{animalId}/relations")
     public ResponseEntity<?> addRelations(@PathVariable Long animalId,
                                         @RequestBody RelationsCreationRequest relationsRequest,
-                                        HttpServletRequest httpRequest) {
+                                        @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
-            log.info("Adding relations for animal ID: {} by user ID: {}", animalId, userId);
+            log.debug("Adding relations for animal ID: {} by user ID: {}", animalId, userId);
             animalService.addRelations(animalId, relationsRequest);
             
             Map<String, String> response = new HashMap<>();
@@ -0,0 +1,166 @@
+package com.backend.controller;
+
+import com.backend.dto.ChunkedUploadRequest;
+import com.backend.model.UploadSession;
+import com.backend.security.AuthenticatedUser;
+import com.backend.service.ChunkedUploadService;
+import com.backend.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Slf4j
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Start a resumable upload
+     */
+    @PostMapping("/upload/sessions")
+    public ResponseEntity<?> createSession(@Valid @RequestBody ChunkedUploadRequest request,
+                                           @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            String mediaType = request.getMediaType() != null ? request.getMediaType() : "photo";
+
+            // Determine media type based on content type if not specified
+            if ("photo".equals(mediaType) && request.getContentType() != null) {
+                if (request.getContentType().startsWith("video/")) {
+                    mediaType = "video";
+                } else if (request.getContentType().startsWith("audio/")) {
+                    mediaType = "audio";
+                }
+            }
+
+            UploadSession session = chunkedUploadService.createSession(
+                user.userId(), request.getFileName(), mediaType, request.getTotalSize(), request.getChecksum());
+
+            return ResponseEntity.status(201).body(createStatusResponse(session));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(429).body(createErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error creating upload session: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to create upload session: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Upload one chunk; the request body is the raw chunk bytes
+     */
+    @PutMapping("/upload/sessions/{uploadId}/chunks")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            HttpServletRequest httpRequest,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        try {
+            UploadSession session = chunkedUploadService.acceptChunk(uploadId, user.userId(), offset, httpRequest.getInputStream());
+            return ResponseEntity.ok(createStatusResponse(session));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(createErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error writing chunk for upload {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to store chunk: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Report which chunks have been received so a client can resume
+     */
+    @GetMapping("/upload/sessions/{uploadId}")
+    public ResponseEntity<?> getSessionStatus(@PathVariable String uploadId, @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            return ResponseEntity.ok(createStatusResponse(chunkedUploadService.getSession(uploadId, user.userId())));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Verify and finalize the upload
+     */
+    @PostMapping("/upload/sessions/{uploadId}/complete")
+    public ResponseEntity<?> completeSession(@PathVariable String uploadId, @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            UploadSession session = chunkedUploadService.getSession(uploadId, user.userId());
+            String filename = chunkedUploadService.completeSession(uploadId, user.userId());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("filePath", fileStorageService.getPublicUrl(session.getMediaType(), filename));
+            response.put("filename", filename);
+            response.put("mediaType", session.getMediaType());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(createErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error completing upload {}: {}", uploadId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to complete upload: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/upload/sessions/{uploadId}")
+    public ResponseEntity<?> abortSession(@PathVariable String uploadId, @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            chunkedUploadService.abortSession(uploadId, user.userId());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Upload aborted");
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> createStatusResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("uploadId", session.getUploadId());
+        response.put("fileName", session.getFileName());
+        response.put("mediaType", session.getMediaType());
+        response.put("totalSize", session.getTotalSize());
+        response.put("chunkSize", session.getChunkSize());
+        response.put("totalChunks", session.getTotalChunks());
+        response.put("receivedChunks", session.getReceivedChunkCount());
+        response.put("receivedBytes", session.getReceivedBytes());
+        response.put("missingChunks", session.getMissingChunks(100));
+        response.put("state", session.getState());
+        response.put("expiresAt", Instant.ofEpochMilli(chunkedUploadService.getSessionExpiresAtMillis(session)));
+        return response;
+    }
+
+    private Map<String, Object> createErrorResponse(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("error", message);
+        return error;
+    }
+}
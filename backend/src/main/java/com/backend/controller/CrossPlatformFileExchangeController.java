@@ -1,25 +1,33 @@
 package com.backend.controller;
 
 import com.backend.dto.FilePackageRequest;
+import com.backend.model.ExportPlan;
+import com.backend.model.PackageManifest;
+import com.backend.model.SerializableFileData;
 import com.backend.model.SerializableFilePackage;
+import com.backend.security.AuthenticatedUser;
+import com.backend.service.BinaryPackageFormat;
 import com.backend.service.CrossPlatformFileExchangeService;
-import com.backend.service.JwtService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.servlet.http.HttpServletRequest;
+import com.backend.service.PackageProgressListener;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -28,8 +36,8 @@ import java.util.Map;
 public class CrossPlatformFileExchangeController {
     
     private final CrossPlatformFileExchangeService exchangeService;
-    private final JwtService jwtService;
-    private final ObjectMapper objectMapper;
+    
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
     
     /**
      * Export files as a downloadable package
@@ -37,48 +45,30 @@ public class CrossPlatformFileExchangeController {
     @PostMapping("/api/files/export")
     public ResponseEntity<?> exportFilePackage(
             @Valid @RequestBody FilePackageRequest request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         try {
-            // Extract user ID from JWT token
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                return ResponseEntity.status(401).body(createErrorResponse("Authentication required"));
-            }
+            Long userId = user.userId();
             
             log.info("Exporting {} files for user {}", request.getFileIds().size(), userId);
             
-            // Create file package
-            SerializableFilePackage filePackage = exchangeService.exportFilePackage(request, userId);
-            
-            // Convert to JSON
-            String jsonContent = objectMapper.writeValueAsString(filePackage);
-            byte[] packageData = jsonContent.getBytes();
-            
-            // Compress if requested
-            if (request.isCompressPackage()) {
-                packageData = exchangeService.compressData(packageData);
-            }
-            
-            // Generate filename
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = String.format("%s_%s.%s", 
-                request.getPackageName() != null ? request.getPackageName().replaceAll("[^a-zA-Z0-9]", "_") : "FilePackage",
-                timestamp,
-                request.isCompressPackage() ? "pkg.gz" : "pkg.json");
+            // Resolve metadata up front; file bodies are streamed straight to the response
+            ExportPlan plan = exchangeService.planExport(request, userId);
             
             // Set response headers
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(request.isCompressPackage() ? 
+            headers.setContentType("v2".equals(request.getFormat()) || request.isCompressPackage() ? 
                 MediaType.APPLICATION_OCTET_STREAM : MediaType.APPLICATION_JSON);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(packageData.length);
+            headers.setContentDispositionFormData("attachment", exchangeService.exportFileName(request));
+            
+            StreamingResponseBody body = outputStream ->
+                exchangeService.writePackage(plan, request, outputStream, PackageProgressListener.NONE);
             
-            log.info("Successfully exported package {} with {} files", filePackage.getPackageId(), filePackage.getTotalFiles());
+            log.info("Streaming package {} with {} files", plan.getHeader().getPackageId(), plan.getEntries().size());
             
             return ResponseEntity.ok()
                 .headers(headers)
-                .body(packageData);
+                .body(body);
                 
         } catch (Exception e) {
             log.error("Error exporting file package: {}", e.getMessage(), e);
@@ -92,14 +82,10 @@ public class CrossPlatformFileExchangeController {
     @PostMapping("/api/files/export/json")
     public ResponseEntity<?> exportFilePackageAsJson(
             @Valid @RequestBody FilePackageRequest request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         try {
-            // Extract user ID from JWT token
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                return ResponseEntity.status(401).body(createErrorResponse("Authentication required"));
-            }
+            Long userId = user.userId();
             
             // Create file package
             SerializableFilePackage filePackage = exchangeService.exportFilePackage(request, userId);
@@ -124,14 +110,10 @@ public class CrossPlatformFileExchangeController {
     public ResponseEntity<?> importFilePackage(
             @RequestParam("packageFile") MultipartFile packageFile,
             @RequestParam(value = "isCompressed", defaultValue = "false") boolean isCompressed,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         try {
-            // Extract user ID from JWT token
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                return ResponseEntity.status(401).body(createErrorResponse("Authentication required"));
-            }
+            Long userId = user.userId();
             
             if (packageFile.isEmpty()) {
                 return ResponseEntity.badRequest().body(createErrorResponse("No package file uploaded"));
@@ -139,21 +121,17 @@ public class CrossPlatformFileExchangeController {
             
             log.info("Importing file package for user {}", userId);
             
-            // Read package data
-            byte[] packageData = packageFile.getBytes();
-            
-            // Decompress if necessary
-            if (isCompressed) {
-                packageData = exchangeService.decompressData(packageData);
+            // Parse the package incrementally, decompressing on the fly if necessary
+            Map<String, Object> importResult;
+            BinaryPackageFormat.Kind kind = detectFormat(packageFile);
+            if (kind == BinaryPackageFormat.Kind.BINARY_V2) {
+                importResult = exchangeService.importBinaryPackage(packageFile, userId);
+            } else {
+                try (InputStream packageStream = jsonStream(packageFile, kind, isCompressed)) {
+                    importResult = exchangeService.importFilePackageStream(packageStream, userId);
+                }
             }
             
-            // Parse JSON to SerializableFilePackage
-            String jsonContent = new String(packageData);
-            SerializableFilePackage filePackage = objectMapper.readValue(jsonContent, SerializableFilePackage.class);
-            
-            // Import files
-            Map<String, Object> importResult = exchangeService.importFilePackage(filePackage, userId);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Package imported successfully");
@@ -173,14 +151,10 @@ public class CrossPlatformFileExchangeController {
     @PostMapping("/api/files/import/json")
     public ResponseEntity<?> importFilePackageFromJson(
             @RequestBody SerializableFilePackage filePackage,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         try {
-            // Extract user ID from JWT token
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                return ResponseEntity.status(401).body(createErrorResponse("Authentication required"));
-            }
+            Long userId = user.userId();
             
             log.info("Importing file package from JSON for user {}", userId);
             
@@ -206,54 +180,29 @@ public class CrossPlatformFileExchangeController {
     @PostMapping("/api/files/package/info")
     public ResponseEntity<?> getPackageInfo(
             @RequestParam("packageFile") MultipartFile packageFile,
-            @RequestParam(value = "isCompressed", defaultValue = "false") boolean isCompressed,
-            HttpServletRequest httpRequest) {
+            @RequestParam(value = "isCompressed", defaultValue = "false") boolean isCompressed) {
         
         try {
-            // Extract user ID from JWT token
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                return ResponseEntity.status(401).body(createErrorResponse("Authentication required"));
-            }
-            
             if (packageFile.isEmpty()) {
                 return ResponseEntity.badRequest().body(createErrorResponse("No package file uploaded"));
             }
             
-            // Read and parse package
-            byte[] packageData = packageFile.getBytes();
-            if (isCompressed) {
-                packageData = exchangeService.decompressData(packageData);
-            }
-            
-            String jsonContent = new String(packageData);
-            SerializableFilePackage filePackage = objectMapper.readValue(jsonContent, SerializableFilePackage.class);
-            
-            // Create info response (without file content)
-            Map<String, Object> packageInfo = new HashMap<>();
-            packageInfo.put("packageId", filePackage.getPackageId());
-            packageInfo.put("packageName", filePackage.getPackageName());
-            packageInfo.put("description", filePackage.getDescription());
-            packageInfo.put("createdAt", filePackage.getCreatedAt());
-            packageInfo.put("createdBy", filePackage.getCreatedBy());
-            packageInfo.put("sourceSystem", filePackage.getSourceSystem());
-            packageInfo.put("sourceVersion", filePackage.getSourceVersion());
-            packageInfo.put("totalFiles", filePackage.getTotalFiles());
-            packageInfo.put("totalSizeBytes", filePackage.getTotalSizeBytes());
-            packageInfo.put("isCompressed", filePackage.isCompressed());
-            packageInfo.put("includesMetadata", filePackage.isIncludesMetadata());
-            packageInfo.put("supportedFormats", filePackage.getSupportedFormats());
-            
-            // File summary (without content)
-            if (filePackage.getFiles() != null) {
-                packageInfo.put("fileSummary", filePackage.getFiles().stream()
-                    .map(file -> Map.of(
-                        "fileName", file.getFileName(),
-                        "mediaType", file.getMediaType(),
-                        "fileSize", file.getFileSize(),
-                        "animalName", file.getAnimalName() != null ? file.getAnimalName() : "N/A"
-                    ))
+            Map<String, Object> packageInfo;
+            BinaryPackageFormat.Kind kind = detectFormat(packageFile);
+            if (kind == BinaryPackageFormat.Kind.BINARY_V2) {
+                // Only the footer and manifest are read
+                PackageManifest manifest = exchangeService.readBinaryManifest(packageFile);
+                packageInfo = buildPackageInfo(manifest.getHeader(), manifest.getEntries().stream()
+                    .map(PackageManifest.Entry::getFile)
                     .toList());
+                packageInfo.put("formatVersion", manifest.getFormatVersion());
+            } else {
+                // File content is skipped by the parser, never decoded
+                try (InputStream packageStream = jsonStream(packageFile, kind, isCompressed)) {
+                    SerializableFilePackage filePackage = exchangeService.readPackageMetadata(packageStream);
+                    packageInfo = buildPackageInfo(filePackage, filePackage.getFiles());
+                    packageInfo.put("formatVersion", 1);
+                }
             }
             
             Map<String, Object> response = new HashMap<>();
@@ -274,14 +223,10 @@ public class CrossPlatformFileExchangeController {
     @PostMapping("/api/files/export/preview")
     public ResponseEntity<?> exportPackagePreview(
             @Valid @RequestBody FilePackageRequest request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         try {
-            // Extract user ID from JWT token
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                return ResponseEntity.status(401).body(createErrorResponse("Authentication required"));
-            }
+            Long userId = user.userId();
             
             // Create preview request (no file content)
             FilePackageRequest previewRequest = FilePackageRequest.builder()
@@ -290,16 +235,11 @@ public class CrossPlatformFileExchangeController {
                 .description(request.getDescription())
                 .includeMetadata(true)
                 .compressPackage(false)
+                .format(request.getFormat())
                 .build();
             
-            // This would need to be modified to create a preview without file content
-            // For now, we'll create the full package but indicate it's a preview
-            SerializableFilePackage filePackage = exchangeService.exportFilePackage(previewRequest, userId);
-            
-            // Remove file content for preview
-            if (filePackage.getFiles() != null) {
-                filePackage.getFiles().forEach(file -> file.setFileContent(null));
-            }
+            // Built from database rows and file stats only; no file is read
+            SerializableFilePackage filePackage = exchangeService.previewExport(previewRequest, userId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -316,21 +256,59 @@ public class CrossPlatformFileExchangeController {
     }
     
     /**
-     * Extract user ID from JWT token
+     * Build package info (without file content)
      */
-    private Long extractUserIdFromToken(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                return jwtService.extractUserId(token);
-            }
-        } catch (Exception e) {
-            log.error("Error extracting user ID from token: {}", e.getMessage());
+    private Map<String, Object> buildPackageInfo(SerializableFilePackage filePackage, List<SerializableFileData> files) {
+        Map<String, Object> packageInfo = new HashMap<>();
+        packageInfo.put("packageId", filePackage.getPackageId());
+        packageInfo.put("packageName", filePackage.getPackageName());
+        packageInfo.put("description", filePackage.getDescription());
+        packageInfo.put("createdAt", filePackage.getCreatedAt());
+        packageInfo.put("createdBy", filePackage.getCreatedBy());
+        packageInfo.put("sourceSystem", filePackage.getSourceSystem());
+        packageInfo.put("sourceVersion", filePackage.getSourceVersion());
+        packageInfo.put("totalFiles", filePackage.getTotalFiles());
+        packageInfo.put("totalSizeBytes", filePackage.getTotalSizeBytes());
+        packageInfo.put("isCompressed", filePackage.isCompressed());
+        packageInfo.put("includesMetadata", filePackage.isIncludesMetadata());
+        packageInfo.put("supportedFormats", filePackage.getSupportedFormats());
+        
+        // File summary (without content)
+        if (files != null) {
+            packageInfo.put("fileSummary", files.stream()
+                .map(file -> Map.of(
+                    "fileName", file.getFileName(),
+                    "mediaType", file.getMediaType(),
+                    "fileSize", file.getFileSize(),
+                    "animalName", file.getAnimalName() != null ? file.getAnimalName() : "N/A"
+                ))
+                .toList());
         }
-        return null;
+        return packageInfo;
     }
     
+    /**
+     * Identify an uploaded package from its first bytes
+     */
+    private BinaryPackageFormat.Kind detectFormat(MultipartFile packageFile) throws IOException {
+        try (InputStream in = packageFile.getInputStream()) {
+            byte[] head = in.readNBytes(BinaryPackageFormat.MAGIC.length);
+            return BinaryPackageFormat.detect(head, head.length);
+        }
+    }
+    
+    /**
+     * Open a v1 package, wrapped in GZIP if it is (or is declared to be) compressed
+     */
+    private InputStream jsonStream(MultipartFile packageFile, BinaryPackageFormat.Kind kind, boolean isCompressed) throws IOException {
+        InputStream in = packageFile.getInputStream();
+        if (kind == BinaryPackageFormat.Kind.JSON_GZIP || isCompressed) {
+            return new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+        }
+        return new BufferedInputStream(in, STREAM_BUFFER_SIZE);
+    }
+    
+    
     /**
      * Create error response
      */
@@ -0,0 +1,169 @@
+package com.backend.controller;
+
+import com.backend.dto.FilePackageRequest;
+import com.backend.model.ExchangeJob;
+import com.backend.security.AuthenticatedUser;
+import com.backend.service.ExchangeJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Background export/import jobs: submit, poll or stream progress, download
+ * the finished export, and resume interrupted imports.
+ */
+@RestController
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Slf4j
+public class ExchangeJobController {
+
+    private final ExchangeJobService jobService;
+
+    @PostMapping("/api/files/jobs/export")
+    public ResponseEntity<?> submitExport(
+            @Valid @RequestBody FilePackageRequest request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        Long userId = user.userId();
+
+        try {
+            ExchangeJob job = jobService.submitExport(request, userId);
+            return ResponseEntity.accepted().body(jobService.describe(job));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(createErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error submitting export job: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to submit export: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/api/files/jobs/import")
+    public ResponseEntity<?> submitImport(
+            @RequestParam("packageFile") MultipartFile packageFile,
+            @RequestParam(value = "isCompressed", defaultValue = "false") boolean isCompressed,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        Long userId = user.userId();
+        if (packageFile.isEmpty()) {
+            return ResponseEntity.badRequest().body(createErrorResponse("No package file uploaded"));
+        }
+
+        try {
+            ExchangeJob job = jobService.submitImport(packageFile, isCompressed, userId);
+            return ResponseEntity.accepted().body(jobService.describe(job));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(createErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error submitting import job: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body(createErrorResponse("Failed to submit import: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/files/jobs/{jobId}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String jobId, @AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.userId();
+
+        try {
+            return ResponseEntity.ok(jobService.describe(jobService.getJob(jobId, userId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Server-sent "progress" events until the job finishes
+     */
+    @GetMapping(value = "/api/files/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamJobProgress(@PathVariable String jobId, @AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.userId();
+
+        try {
+            SseEmitter emitter = jobService.subscribe(jobId, userId);
+            return ResponseEntity.ok(emitter);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/files/jobs/{jobId}/artifact")
+    public ResponseEntity<?> downloadArtifact(@PathVariable String jobId, @AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.userId();
+
+        ExchangeJob job;
+        try {
+            job = jobService.getJob(jobId, userId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+        if (job.getType() != ExchangeJob.Type.EXPORT || job.getState() != ExchangeJob.State.COMPLETED) {
+            return ResponseEntity.status(409).body(createErrorResponse("Export is not ready: " + job.getState()));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getContentType()));
+        headers.setContentDispositionFormData("attachment", job.getFileName());
+
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(new FileSystemResource(job.getWorkFile()));
+    }
+
+    @PostMapping("/api/files/jobs/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable String jobId, @AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.userId();
+
+        try {
+            ExchangeJob job = jobService.resumeImport(jobId, userId);
+            return ResponseEntity.accepted().body(jobService.describe(job));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(createErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel a running job, or discard a finished one and its files
+     */
+    @DeleteMapping("/api/files/jobs/{jobId}")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId, @AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.userId();
+
+        try {
+            jobService.cancelJob(jobId, userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Job cancelled");
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+
+    private Map<String, Object> createErrorResponse(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("error", message);
+        error.put("timestamp", LocalDateTime.now());
+        return error;
+    }
+}
@@ -1,12 +1,12 @@
 package com.backend.controller;
 
+import com.backend.security.AuthenticatedUser;
 import com.backend.service.MessageService;
-import com.backend.service.JwtService;
 import com.backend.service.RealTimeMessageService;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,18 +21,12 @@ import java.util.concurrent.ExecutionException;
 @Slf4j
 public class MessageController {
     private final MessageService messageService;
-    private final JwtService jwtService;
     private final RealTimeMessageService realTimeMessageService;
 
     @PostMapping("/messages/send")
-    public ResponseEntity<?> sendMessage(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> sendMessage(@RequestBody Map<String, Object> request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long senderId = extractUserIdFromToken(httpRequest);
-            if (senderId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long senderId = user.userId();
 
             Long receiverId = Long.valueOf(request.get("receiverId").toString());
             String content = (String) request.get("content");
@@ -65,14 +59,9 @@ public class MessageController {
     }
 
     @PostMapping("/messages/conversation")
-    public ResponseEntity<?> getConversation(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getConversation(@RequestBody Map<String, Object> request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             Long otherUserId = Long.valueOf(request.get("otherUserId").toString());
 
@@ -94,14 +83,9 @@ public class MessageController {
 
     @PostMapping("/messages/conversation/async")
     public ResponseEntity<?> getConversationAsync(@RequestBody Map<String, Object> request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             Long otherUserId = Long.valueOf(request.get("otherUserId").toString());
 
@@ -127,14 +111,9 @@ public class MessageController {
     }
 
     @GetMapping("/messages/conversations")
-    public ResponseEntity<?> getConversations(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getConversations(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             List<Map<String, Object>> conversations = messageService.getConversations(userId);
             return ResponseEntity.ok(conversations);
@@ -147,14 +126,9 @@ public class MessageController {
     }
 
     @GetMapping("/messages/conversations/async")
-    public ResponseEntity<?> getConversationsAsync(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getConversationsAsync(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             CompletableFuture<List<Map<String, Object>>> conversationsFuture = messageService
                     .getConversationsAsync(userId);
@@ -184,14 +158,9 @@ public class MessageController {
 
     @PostMapping("/messages/read")
     public ResponseEntity<?> markMessagesAsRead(@RequestBody Map<String, Object> request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             Long otherUserId = Long.valueOf(request.get("otherUserId").toString());
 
@@ -215,14 +184,9 @@ public class MessageController {
     }
 
     @GetMapping("/messages/unread-count")
-    public ResponseEntity<?> getUnreadCount(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getUnreadCount(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             CompletableFuture<Long> countFuture = messageService.getUnreadCountAsync(userId);
             Long count = countFuture.get();
@@ -239,14 +203,9 @@ public class MessageController {
     }
 
     @GetMapping("/messages/dashboard")
-    public ResponseEntity<?> getMessagesDashboard(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getMessagesDashboard(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             CompletableFuture<List<Map<String, Object>>> conversationsFuture = messageService
                     .getConversationsAsync(userId);
@@ -276,28 +235,11 @@ public class MessageController {
         }
     }
 
-    private Long extractUserIdFromToken(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                return jwtService.extractUserId(token);
-            } catch (Exception e) {
-                return null;
-            }
-        }
-        return null;
-    }
 
     @PostMapping("/messages/session/register")
-    public ResponseEntity<?> registerSession(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> registerSession(@RequestBody Map<String, Object> request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             String sessionId = (String) request.get("sessionId");
             if (sessionId == null) {
@@ -321,16 +263,8 @@ public class MessageController {
     }
 
     @PostMapping("/messages/session/unregister")
-    public ResponseEntity<?> unregisterSession(@RequestBody Map<String, Object> request,
-            HttpServletRequest httpRequest) {
+    public ResponseEntity<?> unregisterSession(@RequestBody Map<String, Object> request) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
-
             String sessionId = (String) request.get("sessionId");
             if (sessionId == null) {
                 Map<String, String> error = new HashMap<>();
@@ -353,14 +287,9 @@ public class MessageController {
     }
 
     @PostMapping("/messages/typing")
-    public ResponseEntity<?> handleTyping(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> handleTyping(@RequestBody Map<String, Object> request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long senderId = extractUserIdFromToken(httpRequest);
-            if (senderId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long senderId = user.userId();
 
             Long receiverId = Long.valueOf(request.get("receiverId").toString());
             Boolean isTyping = (Boolean) request.get("isTyping");
@@ -384,14 +313,9 @@ public class MessageController {
             return ResponseEntity.status(500).body(error);
         }
     }    @GetMapping("/messages/online-status/{userId}")
-    public ResponseEntity<?> getOnlineStatus(@PathVariable Long userId, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getOnlineStatus(@PathVariable Long userId, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long requesterId = extractUserIdFromToken(httpRequest);
-            if (requesterId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long requesterId = user.userId();
 
             if (userId == null) {
                 Map<String, String> error = new HashMap<>();
@@ -418,15 +342,8 @@ public class MessageController {
     }
 
     @GetMapping("/messages/online-count")
-    public ResponseEntity<?> getOnlineUsersCount(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getOnlineUsersCount() {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
-
             CompletableFuture<Integer> countFuture = realTimeMessageService.getOnlineUsersCountAsync();
             Integer count = countFuture.get();            Map<String, Object> response = new HashMap<>();
             response.put("onlineCount", count);
@@ -441,14 +358,9 @@ public class MessageController {
     }
 
     @PostMapping("/messages/force-offline")
-    public ResponseEntity<?> forceUserOffline(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> forceUserOffline(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
 
             log.info("Force offline request received for user: {}", userId);
             
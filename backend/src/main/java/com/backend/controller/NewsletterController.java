@@ -1,10 +1,10 @@
 package com.backend.controller;
 
+import com.backend.security.AuthenticatedUser;
 import com.backend.service.NewsletterService;
-import com.backend.service.JwtService;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -17,17 +17,11 @@ import java.util.Map;
 public class NewsletterController {
     
     private final NewsletterService newsletterService;
-    private final JwtService jwtService;
     
     @GetMapping("/newsletter/subscriptions")
-    public ResponseEntity<?> getSubscriptions(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getSubscriptions(@AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
             
             List<Map<String, Object>> subscriptions = newsletterService.getSubscriptions(userId);
             return ResponseEntity.ok(subscriptions);
@@ -38,15 +32,18 @@ public class NewsletterController {
         }
     }
     
+    /**
+     * Number of active subscribers per species
+     */
+    @GetMapping("/newsletter/counts")
+    public ResponseEntity<?> getSubscriberCounts() {
+        return ResponseEntity.ok(newsletterService.getSubscriberCounts());
+    }
+    
     @PostMapping("/newsletter/update")
-    public ResponseEntity<?> updateSubscriptions(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> updateSubscriptions(@RequestBody Map<String, Object> request, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            Long userId = extractUserIdFromToken(httpRequest);
-            if (userId == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "User authentication required");
-                return ResponseEntity.status(401).body(error);
-            }
+            Long userId = user.userId();
             
             @SuppressWarnings("unchecked")
             List<String> species = (List<String>) request.get("species");
@@ -63,16 +60,4 @@ public class NewsletterController {
         }
     }
     
-    private Long extractUserIdFromToken(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                return jwtService.extractUserId(token);
-            } catch (Exception e) {
-                return null;
-            }
-        }
-        return null;
-    }
 } 
\ No newline at end of file
@@ -1,18 +1,29 @@
 package com.backend.controller;
 
 import com.backend.dto.UserLoginRequest;
+import com.backend.dto.UserProfileResponse;
 import com.backend.dto.UserResponse;
 import com.backend.dto.UserSignupRequest;
-import com.backend.service.JwtService;
+import com.backend.security.AuthRateLimiter;
+import com.backend.security.AuthenticatedUser;
+import com.backend.service.UserDirectoryService;
 import com.backend.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,10 +31,16 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
-    private final JwtService jwtService;
+    private final UserDirectoryService userDirectoryService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/users/signup")
-    public ResponseEntity<?> signUp(@RequestBody UserSignupRequest request) {
+    public ResponseEntity<?> signUp(@RequestBody UserSignupRequest request, HttpServletRequest httpRequest) {
+        long retryAfter = authRateLimiter.check(httpRequest, request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+
         try {
             // Check for missing required fields like in Node.js
             if (request.getFirstName() == null || request.getFirstName().trim().isEmpty() ||
@@ -43,6 +60,10 @@ public class UserController {
             response.put("message", "User and address created successfully");
 
             return ResponseEntity.status(201).body(response);
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(503).header("Retry-After", "1").body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             if (e.getMessage().contains("Email already exists")) {
@@ -55,7 +76,12 @@ public class UserController {
     }
 
     @PostMapping("/users/login")
-    public ResponseEntity<?> login(@RequestBody UserLoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody UserLoginRequest request, HttpServletRequest httpRequest) {
+        long retryAfter = authRateLimiter.check(httpRequest, request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+
         try {
             // Check if email and password are provided
             if (request.getEmail() == null || request.getEmail().trim().isEmpty() ||
@@ -72,6 +98,10 @@ public class UserController {
             response.put("token", token);
 
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(503).header("Retry-After", "1").body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             if (e.getMessage().contains("Invalid credentials")) {
@@ -84,25 +114,22 @@ public class UserController {
         }
     }
 
+    @GetMapping("/users/me")
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser user) {
+        Optional<UserProfileResponse> profile = userService.getProfile(user.userId());
+        if (profile.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "User not found");
+            return ResponseEntity.status(404).body(error);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(userService.getProfileCacheTtl()).cachePrivate())
+                .body(profile.get());
+    }
+
     @GetMapping("/users/all/details")
-    public ResponseEntity<?> getAllUsersWithDetails(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getAllUsersWithDetails() {
         try {
-            // Check if user is authenticated and is admin
-            String authHeader = httpRequest.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Access denied. Admin privileges required.");
-                return ResponseEntity.status(403).body(error);
-            }
-
-            String token = authHeader.substring(7);
-            Boolean isAdmin = jwtService.extractIsAdmin(token);
-            if (isAdmin == null || !isAdmin) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Access denied. Admin privileges required.");
-                return ResponseEntity.status(403).body(error);
-            }
-
             List<UserResponse> users = userService.getAllUsersWithDetails();
             return ResponseEntity.ok(users);
         } catch (Exception e) {
@@ -112,25 +139,62 @@ public class UserController {
         }
     }
 
-    @DeleteMapping("/users/delete")
-    public ResponseEntity<?> deleteUser(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+    /**
+     * Keyset-paginated admin listing; pass {@code nextCursor} back as {@code cursor}
+     */
+    @GetMapping("/users/all/page")
+    public ResponseEntity<?> getUsersPage(
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
-            // Check if user is authenticated and is admin
-            String authHeader = httpRequest.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Access denied. Admin privileges required.");
-                return ResponseEntity.status(403).body(error);
-            }
+            UserDirectoryService.SortField sortField = parseSortField(sort);
+            return ResponseEntity.ok(userDirectoryService.findPage(
+                    search, sortField, "desc".equalsIgnoreCase(direction), limit, cursor));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(400).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Internal Server Error");
+            return ResponseEntity.status(500).body(error);
+        }
+    }
 
-            String token = authHeader.substring(7);
-            Boolean isAdmin = jwtService.extractIsAdmin(token);
-            if (isAdmin == null || !isAdmin) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Access denied. Admin privileges required.");
-                return ResponseEntity.status(403).body(error);
+    /**
+     * Stream every matching user as NDJSON or CSV
+     */
+    @GetMapping("/users/all/export")
+    public ResponseEntity<?> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String search) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Unsupported export format: " + format);
+            return ResponseEntity.status(400).body(error);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            if (csv) {
+                userDirectoryService.exportCsv(search, outputStream);
+            } else {
+                userDirectoryService.exportNdjson(search, outputStream);
             }
+        };
 
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON);
+        headers.setContentDispositionFormData("attachment", csv ? "users.csv" : "users.ndjson");
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @DeleteMapping("/users/delete")
+    public ResponseEntity<?> deleteUser(@RequestBody Map<String, Object> request) {
+        try {
             if (!request.containsKey("userId")) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "User ID is required");
@@ -138,10 +202,11 @@ public class UserController {
             }
 
             Long userId = Long.valueOf(request.get("userId").toString());
-            userService.deleteUser(userId);
+            Map<String, Integer> deleted = userService.deleteUser(userId);
 
-            Map<String, String> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
             response.put("message", "User and all related data successfully deleted");
+            response.put("deleted", deleted);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -154,4 +219,20 @@ public class UserController {
             }
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many attempts, please try again later");
+        return ResponseEntity.status(429).header("Retry-After", String.valueOf(retryAfterSeconds)).body(error);
+    }
+
+    private static UserDirectoryService.SortField parseSortField(String sort) {
+        return switch (sort.toLowerCase()) {
+            case "id" -> UserDirectoryService.SortField.ID;
+            case "name" -> UserDirectoryService.SortField.NAME;
+            case "email" -> UserDirectoryService.SortField.EMAIL;
+            case "createdat" -> UserDirectoryService.SortField.CREATED_AT;
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sort);
+        };
+    }
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import java.util.List;
 
@@ -27,4 +28,9 @@ public class FilePackageRequest {
     
     private boolean includeMetadata = true;
     private boolean compressPackage = false;
+
+    // "v1" for the JSON package, "v2" for the binary package with a manifest
+    @Pattern(regexp = "v1|v2", message = "Format must be v1 or v2")
+    @Builder.Default
+    private String format = "v1";
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of the admin user listing. {@code nextCursor} is passed back to
+ * fetch the following page; {@code total} is only computed for the first page.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserPageResponse {
+    
+    private List<UserResponse> users;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long total;
+}
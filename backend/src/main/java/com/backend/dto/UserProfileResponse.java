@@ -0,0 +1,18 @@
+package com.backend.dto;
+
+import lombok.Data;
+
+/**
+ * Display fields for the signed-in user, served by {@code /users/me}
+ * instead of being carried in every token.
+ */
+@Data
+public class UserProfileResponse {
+    
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String phone;
+    private String createdAt;
+}
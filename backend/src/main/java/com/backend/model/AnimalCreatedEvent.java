@@ -0,0 +1,7 @@
+package com.backend.model;
+
+/**
+ * Published by {@code AnimalService} after a new animal listing is saved.
+ */
+public record AnimalCreatedEvent(Long animalId, Long ownerId, String name, String species, String breed, Integer age) {
+}
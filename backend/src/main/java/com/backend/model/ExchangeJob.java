@@ -0,0 +1,92 @@
+package com.backend.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A package export or import running in the background. For exports
+ * {@code workFile} is the artifact being written; for imports it is the
+ * uploaded package, kept until the import completes so it can be resumed.
+ */
+@Getter
+public class ExchangeJob {
+
+    public enum Type {
+        EXPORT, IMPORT
+    }
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, INTERRUPTED, CANCELLED;
+
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    private final String jobId;
+    private final Type type;
+    private final Long userId;
+    private final Path workFile;
+    private final String fileName;
+    private final boolean compressed;
+    private final Instant createdAt;
+
+    private volatile State state = State.QUEUED;
+    private volatile int filesTotal = -1;
+    private volatile long bytesTotal = -1;
+    private volatile int filesDone;
+    private volatile long bytesDone;
+    private volatile Instant finishedAt;
+    private volatile boolean cancelRequested;
+
+    @Setter
+    private volatile String contentType;
+    @Setter
+    private volatile String error;
+    @Setter
+    private volatile Map<String, Object> result;
+    @Setter
+    private volatile ImportCheckpoint checkpoint;
+
+    public ExchangeJob(String jobId, Type type, Long userId, Path workFile, String fileName,
+                       boolean compressed, Instant createdAt) {
+        this.jobId = jobId;
+        this.type = type;
+        this.userId = userId;
+        this.workFile = workFile;
+        this.fileName = fileName;
+        this.compressed = compressed;
+        this.createdAt = createdAt;
+    }
+
+    public synchronized boolean transition(State from, State to) {
+        if (state != from) {
+            return false;
+        }
+        state = to;
+        finishedAt = to.isFinished() ? Instant.now() : null;
+        return true;
+    }
+
+    public void setTotals(int filesTotal, long bytesTotal) {
+        this.filesTotal = filesTotal;
+        this.bytesTotal = bytesTotal;
+    }
+
+    public void setProgress(int filesDone, long bytesDone) {
+        this.filesDone = filesDone;
+        this.bytesDone = bytesDone;
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public void clearCancelRequest() {
+        cancelRequested = false;
+    }
+}
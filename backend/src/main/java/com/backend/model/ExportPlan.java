@@ -0,0 +1,36 @@
+package com.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Everything needed to write a package without touching the database again:
+ * the package header plus, for each file, its metadata and location on disk.
+ * File bodies are only read while the package is being written out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportPlan {
+
+    // Package header; files, totals and checksum are filled in by the writer
+    private SerializableFilePackage header;
+    private List<Entry> entries;
+
+    public long getTotalSizeBytes() {
+        return entries.stream().mapToLong(entry -> entry.getMetadata().getFileSize()).sum();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        // File metadata without content or checksum
+        private SerializableFileData metadata;
+        private Path source;
+    }
+}
@@ -0,0 +1,26 @@
+package com.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of an import as of its last committed batch. Every file before
+ * {@code filesProcessed} is either committed or recorded as failed, so a
+ * resumed import can skip them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportCheckpoint {
+
+    private int filesProcessed;
+    private List<String> importedFiles = new ArrayList<>();
+    // Media type of each imported file, in the same order, so the import can be undone
+    private List<String> importedMediaTypes = new ArrayList<>();
+    private List<String> failedFiles = new ArrayList<>();
+    private long totalBytesImported;
+}
@@ -0,0 +1,43 @@
+package com.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Index of a v2 binary package. Stored as JSON near the end of the package and
+ * located through the fixed-size footer, so it can be read without touching
+ * any file section.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PackageManifest {
+
+    private int formatVersion;
+
+    // Package header; files is always null here, entries carry the file metadata
+    private SerializableFilePackage header;
+
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Entry {
+        // File metadata including size and checksum, without content
+        private SerializableFileData file;
+
+        // Position and length of the (possibly compressed) section in the package
+        private long offset;
+        private long storedLength;
+
+        // STORE or DEFLATE
+        private String compression;
+    }
+}
@@ -0,0 +1,138 @@
+package com.backend.model;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * State of a resumable chunked upload. The file is assembled in place in
+ * {@code partFile}; chunks are addressed by index ({@code offset / chunkSize})
+ * and may arrive in any order or concurrently.
+ */
+@Getter
+public class UploadSession {
+
+    public enum State {
+        ACTIVE, COMPLETING, COMPLETED
+    }
+
+    private final String uploadId;
+    private final Long ownerId;
+    private final String fileName;
+    private final String mediaType;
+    private final long totalSize;
+    private final int chunkSize;
+    private final int totalChunks;
+    private final String expectedChecksum;
+    private final Path partFile;
+    private final Instant createdAt;
+
+    private final BitSet receivedChunks;
+    private volatile long lastActivityMillis;
+    private State state = State.ACTIVE;
+    private int chunksInFlight;
+
+    public UploadSession(String uploadId, Long ownerId, String fileName, String mediaType, long totalSize,
+                         int chunkSize, String expectedChecksum, Path partFile) {
+        this.uploadId = uploadId;
+        this.ownerId = ownerId;
+        this.fileName = fileName;
+        this.mediaType = mediaType;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.expectedChecksum = expectedChecksum;
+        this.partFile = partFile;
+        this.createdAt = Instant.now();
+        this.receivedChunks = new BitSet(totalChunks);
+        touch();
+    }
+
+    public void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    public long expectedChunkLength(int chunkIndex) {
+        long start = (long) chunkIndex * chunkSize;
+        return Math.min(chunkSize, totalSize - start);
+    }
+
+    public synchronized void markReceived(int chunkIndex) {
+        receivedChunks.set(chunkIndex);
+        touch();
+    }
+
+    public synchronized boolean isChunkReceived(int chunkIndex) {
+        return receivedChunks.get(chunkIndex);
+    }
+
+    public synchronized int getReceivedChunkCount() {
+        return receivedChunks.cardinality();
+    }
+
+    public synchronized boolean isAllChunksReceived() {
+        return receivedChunks.cardinality() == totalChunks;
+    }
+
+    public synchronized long getReceivedBytes() {
+        long bytes = 0;
+        for (int i = receivedChunks.nextSetBit(0); i >= 0; i = receivedChunks.nextSetBit(i + 1)) {
+            bytes += expectedChunkLength(i);
+        }
+        return bytes;
+    }
+
+    public synchronized List<Integer> getMissingChunks(int limit) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = receivedChunks.nextClearBit(0); i < totalChunks && missing.size() < limit;
+             i = receivedChunks.nextClearBit(i + 1)) {
+            missing.add(i);
+        }
+        return missing;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Register a chunk write. Fails once the session is no longer active, so a
+     * chunk can never land in a file that is being verified or moved.
+     */
+    public synchronized boolean beginChunk() {
+        if (state != State.ACTIVE) {
+            return false;
+        }
+        chunksInFlight++;
+        return true;
+    }
+
+    public synchronized void endChunk() {
+        chunksInFlight--;
+    }
+
+    /**
+     * Move to COMPLETING, but only when no chunk write is in progress
+     */
+    public synchronized boolean beginCompleting() {
+        if (state != State.ACTIVE || chunksInFlight > 0) {
+            return false;
+        }
+        state = State.COMPLETING;
+        touch();
+        return true;
+    }
+
+    public synchronized boolean transition(State from, State to) {
+        if (state != from) {
+            return false;
+        }
+        state = to;
+        touch();
+        return true;
+    }
+}
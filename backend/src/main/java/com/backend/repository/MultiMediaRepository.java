@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,5 +20,8 @@ public interface MultiMediaRepository extends JpaRepository<MultiMedia, Long> {
     @Query("SELECT m FROM MultiMedia m WHERE m.animal.animalId = :animalId AND m.media = 'photo' ORDER BY m.uploadDate DESC LIMIT 1")
     MultiMedia findFirstPhotoByAnimalId(@Param("animalId") Long animalId);
     
+    @Query("SELECT m FROM MultiMedia m LEFT JOIN FETCH m.animal a LEFT JOIN FETCH a.user WHERE m.id IN :ids")
+    List<MultiMedia> findAllWithAnimalAndOwnerByIdIn(@Param("ids") Collection<Long> ids);
+    
     void deleteByAnimalAnimalId(Long animalId);
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.backend.repository;
 
 import com.backend.model.Newsletter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +19,17 @@ public interface NewsletterRepository extends JpaRepository<Newsletter, Long> {
            "WHERE n.species = :species AND n.isActive = true")
     List<Newsletter> findActiveSubscribersBySpecies(@Param("species") String species);
     
+    /**
+     * One keyset page of active subscribers' (userId, email), ordered by user id.
+     */
+    @Query("SELECT u.userId, u.email FROM Newsletter n " +
+           "JOIN n.user u " +
+           "WHERE n.species = :species AND n.isActive = true AND u.userId > :afterUserId " +
+           "ORDER BY u.userId")
+    List<Object[]> findActiveSubscriberContacts(@Param("species") String species,
+                                                @Param("afterUserId") Long afterUserId,
+                                                Pageable page);
+    
     void deleteByUserUserIdAndSpecies(Long userId, String species);
     
     boolean existsByUserUserIdAndSpecies(Long userId, String species);
@@ -20,4 +20,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.address")
     java.util.List<User> findAllWithDetails();
+    
+    @Query("SELECT u.userId, u.email FROM User u WHERE u.userId IN :userIds")
+    java.util.List<Object[]> findEmailsByUserIdIn(@Param("userIds") java.util.Collection<Long> userIds);
 } 
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.backend.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rate limits for the unauthenticated sign-in and sign-up endpoints, keyed by
+ * client IP and by email. Checked before any repository access so bursts are
+ * shed without reaching the database.
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${security.rate-limit.ip.max-requests:30}")
+    private int ipMaxRequests;
+
+    @Value("${security.rate-limit.email.max-requests:10}")
+    private int emailMaxRequests;
+
+    @Value("${security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private SlidingWindowRateLimiter byIp;
+    private SlidingWindowRateLimiter byEmail;
+
+    private long lastReportedRejections;
+
+    @PostConstruct
+    void init() {
+        byIp = new SlidingWindowRateLimiter(ipMaxRequests, windowSeconds * 1000, maxKeys);
+        byEmail = new SlidingWindowRateLimiter(emailMaxRequests, windowSeconds * 1000, maxKeys);
+    }
+
+    /**
+     * Count an attempt from this client for this email.
+     *
+     * @return 0 if allowed, otherwise the Retry-After value in seconds
+     */
+    public long check(HttpServletRequest request, String email) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+
+        long waitMillis = byIp.tryAcquire(request.getRemoteAddr(), now);
+        if (waitMillis == 0 && email != null && !email.isBlank()) {
+            waitMillis = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+        }
+        return waitMillis == 0 ? 0 : Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("ipAllowed", byIp.getAllowedCount());
+        stats.put("ipRejected", byIp.getRejectedCount());
+        stats.put("emailAllowed", byEmail.getAllowedCount());
+        stats.put("emailRejected", byEmail.getRejectedCount());
+        stats.put("ipEvicted", byIp.getEvictedCount());
+        stats.put("emailEvicted", byEmail.getEvictedCount());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}")
+    public void purgeIdleKeys() {
+        long now = System.currentTimeMillis();
+        int ipKeys = byIp.purgeIdle(now);
+        int emailKeys = byEmail.purgeIdle(now);
+
+        long rejections = byIp.getRejectedCount() + byEmail.getRejectedCount();
+        if (rejections > lastReportedRejections) {
+            log.warn("Rate limiter rejected {} sign-in/sign-up attempts since last sweep ({} IPs, {} emails tracked)",
+                rejections - lastReportedRejections, ipKeys, emailKeys);
+            lastReportedRejections = rejections;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.backend.security;
+
+/**
+ * Principal placed in the security context by {@link JwtAuthenticationFilter}.
+ * Controllers receive it through {@code @AuthenticationPrincipal}.
+ */
+public record AuthenticatedUser(Long userId, boolean isAdmin) {
+}
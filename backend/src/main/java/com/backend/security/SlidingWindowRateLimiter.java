@@ -0,0 +1,148 @@
+package com.backend.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding-window counter limiter: each key keeps the count of the current and
+ * previous fixed window, and the previous one is weighted by how much of it
+ * still overlaps the sliding window. Keys are spread over lock stripes so
+ * unrelated keys never contend on the same lock. Each stripe keeps its keys in
+ * access order, and a full stripe evicts its least recently used key.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Record an attempt for the key if it is within the limit.
+     *
+     * @return 0 if the attempt is allowed, otherwise milliseconds until it would be
+     */
+    public long tryAcquire(String key, long nowMillis) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        long windowStart = nowMillis - (nowMillis % windowMillis);
+
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                if (stripe.windows.size() >= maxKeysPerStripe) {
+                    // Idle keys are the least recently used, so this drops them first. Failing
+                    // open here would let a flood of new keys switch the limiter off.
+                    Iterator<Window> eldest = stripe.windows.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evicted.increment();
+                }
+                window = new Window(windowStart);
+                stripe.windows.put(key, window);
+            }
+            window.roll(windowStart, windowMillis);
+
+            long elapsed = nowMillis - windowStart;
+            double previousWeight = 1.0 - (double) elapsed / windowMillis;
+            if (window.previous * previousWeight + window.current + 1 > limit) {
+                rejected.increment();
+                return retryAfterMillis(window, elapsed);
+            }
+            window.current++;
+            allowed.increment();
+            return 0;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop keys with no attempts in the current or previous window.
+     *
+     * @return the number of keys still tracked
+     */
+    public int purgeIdle(long nowMillis) {
+        long windowStart = nowMillis - (nowMillis % windowMillis);
+        int remaining = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                purgeIdle(stripe, windowStart);
+                remaining += stripe.windows.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return remaining;
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    private void purgeIdle(Stripe stripe, long windowStart) {
+        stripe.windows.values().removeIf(window -> window.start < windowStart - windowMillis);
+    }
+
+    private long retryAfterMillis(Window window, long elapsed) {
+        double wait;
+        if (window.current + 1 > limit) {
+            // Wait for the next window, until the current count has decayed enough as "previous"
+            wait = (windowMillis - elapsed) + windowMillis * (1.0 - (double) (limit - 1) / window.current);
+        } else {
+            wait = windowMillis * (1.0 - (double) (limit - 1 - window.current) / window.previous) - elapsed;
+        }
+        return Math.max(1, (long) Math.ceil(wait));
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Window> windows = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Window {
+        long start;
+        int current;
+        int previous;
+
+        Window(long start) {
+            this.start = start;
+        }
+
+        void roll(long windowStart, long windowMillis) {
+            if (start == windowStart) {
+                return;
+            }
+            previous = start == windowStart - windowMillis ? current : 0;
+            current = 0;
+            start = windowStart;
+        }
+    }
+}
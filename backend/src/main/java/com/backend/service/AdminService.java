@@ -4,6 +4,7 @@ import com.backend.model.Admin;
 import com.backend.repository.AdminRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -15,21 +16,28 @@ public class AdminService {
     
     private final AdminRepository adminRepository;
     private final JwtService jwtService;
+    private final PasswordHashingService passwordHashingService;
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String authenticateAdmin(String email, String password) {
         Optional<Admin> adminOpt = adminRepository.findByEmail(email);
         
         if (adminOpt.isEmpty()) {
+            passwordHashingService.matches(password, null);
             throw new RuntimeException("Invalid email or password");
         }
         
         Admin admin = adminOpt.get();
-        // Plain text password comparison
-        if (!password.equals(admin.getPassword())) {
+        if (!passwordHashingService.matches(password, admin.getPassword())) {
             throw new RuntimeException("Invalid email or password");
         }
         
-        return jwtService.generateToken(admin.getAdminId(), admin.getEmail(), true);
+        if (passwordHashingService.needsRehash(admin.getPassword())) {
+            admin.setPassword(passwordHashingService.hash(password));
+            adminRepository.save(admin);
+        }
+        
+        return jwtService.generateToken(admin.getAdminId(), true);
     }
     
     public Optional<Admin> findById(Long adminId) {
@@ -7,8 +7,10 @@ import com.backend.dto.AnimalCreationRequest.MultimediaCreationRequest;
 import com.backend.dto.AnimalCreationRequest.RelationsCreationRequest;
 import com.backend.model.*;
 import com.backend.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,13 +35,15 @@ public class AnimalService {
     private final FeedingScheduleRepository feedingScheduleRepository;
     private final RelationsRepository relationsRepository;
     private final MultiMediaRepository multiMediaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DomainEventLog domainEventLog;
     
     @PersistenceContext
     private EntityManager entityManager;
     
     @Transactional
     public AnimalResponse createBasicAnimal(Long userId, AnimalRequest request) {
-        log.info("Creating basic animal for userId: {}", userId);
+        log.debug("Creating basic animal for userId: {}", userId);
         
         Optional<User> userOpt = userService.findById(userId);
         if (userOpt.isEmpty()) {
@@ -59,14 +63,18 @@ public class AnimalService {
         animal.setViews(0);
         
         Animal savedAnimal = animalRepository.save(animal);
-        log.info("Animal created successfully with ID: {}", savedAnimal.getAnimalId());
+        log.debug("Animal created successfully with ID: {}", savedAnimal.getAnimalId());
+        
+        domainEventLog.recordAfterCommit(DomainEventLog.Type.ANIMAL_CREATED, userId, savedAnimal.getAnimalId(), savedAnimal.getSpecies());
+        eventPublisher.publishEvent(new AnimalCreatedEvent(savedAnimal.getAnimalId(), userId,
+                savedAnimal.getName(), savedAnimal.getSpecies(), savedAnimal.getBreed(), savedAnimal.getAge()));
         
         return convertToAnimalResponse(savedAnimal);
     }
     
     @Transactional
     public void addMedicalHistory(Long animalId, List<MedicalHistoryCreationRequest> medicalHistoryRequests) {
-        log.info("Adding medical history for animalId: {}", animalId);
+        log.debug("Adding medical history for animalId: {}", animalId);
         
         Optional<Animal> animalOpt = animalRepository.findById(animalId);
         if (animalOpt.isEmpty()) {
@@ -97,13 +105,14 @@ public class AnimalService {
                 
                 medicalHistoryRepository.save(medicalHistory);
             }
-            log.info("Added {} medical history records for animal ID: {}", medicalHistoryRequests.size(), animalId);
+            log.debug("Added {} medical history records for animal ID: {}", medicalHistoryRequests.size(), animalId);
         }
     }
     
     @Transactional
+    @Timed(value = "db.query", extraTags = {"query", "feeding_schedule.insert"}, histogram = true)
     public void addFeedingSchedule(Long animalId, List<FeedingScheduleCreationRequest> feedingScheduleRequests) {
-        log.info("Adding feeding schedule for animalId: {}", animalId);
+        log.debug("Adding feeding schedule for animalId: {}", animalId);
         
         Optional<Animal> animalOpt = animalRepository.findById(animalId);
         if (animalOpt.isEmpty()) {
@@ -117,7 +126,7 @@ public class AnimalService {
             
             // Use custom method to insert with proper VARRAY handling
             insertFeedingScheduleWithVArray(animalId, request.getFeedingTimes(), request.getFoodType(), request.getNotes());
-            log.info("Added feeding schedule for animal ID: {}", animalId);
+            log.debug("Added feeding schedule for animal ID: {}", animalId);
         }
     }
     
@@ -173,7 +182,7 @@ public class AnimalService {
             query.setParameter(3, notes);
             
             int result = query.executeUpdate();
-            log.info("Feeding schedule inserted successfully for animal ID: {}, rows affected: {}", animalId, result);
+            log.debug("Feeding schedule inserted successfully for animal ID: {}, rows affected: {}", animalId, result);
         } catch (Exception e) {
             log.error("Error inserting feeding schedule for animal ID {}: {}", animalId, e.getMessage(), e);
             throw new RuntimeException("Failed to insert feeding schedule: " + e.getMessage(), e);
@@ -237,7 +246,7 @@ public class AnimalService {
                 MultiMedia saved = multiMediaRepository.save(multiMedia);
                 log.debug("Saved multimedia with ID: {}", saved.getId());
             }
-            log.info("Added {} multimedia records for animal ID: {}", multimediaRequests.size(), animalId);
+            log.debug("Added {} multimedia records for animal ID: {}", multimediaRequests.size(), animalId);
         } else {
             log.debug("No multimedia data to add for animal ID: {}", animalId);
         }
@@ -263,7 +272,7 @@ public class AnimalService {
             relations.setFriendWith(relationsRequest.getFriendWith());
             
             Relations saved = relationsRepository.save(relations);
-            log.info("Added relations with ID: {} for animal ID: {}", saved.getId(), animalId);
+            log.debug("Added relations with ID: {} for animal ID: {}", saved.getId(), animalId);
         } else {
             log.debug("No relations data to add for animal ID: {}", animalId);
         }
@@ -385,6 +394,7 @@ public class AnimalService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional
     public void incrementViews(Long animalId) {
         animalRepository.incrementViews(animalId);
     }
@@ -394,6 +404,7 @@ public class AnimalService {
             throw new RuntimeException("Animal not found");
         }
         animalRepository.deleteById(animalId);
+        domainEventLog.record(DomainEventLog.Type.ANIMAL_DELETED, 0, animalId);
     }
     
     public List<AnimalResponse> getTopAnimalsByUserCity(Long userId) {
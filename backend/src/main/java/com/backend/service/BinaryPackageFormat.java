@@ -0,0 +1,63 @@
+package com.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Layout of the v2 binary package format:
+ *
+ * <pre>
+ * header   : magic "PAPK" | version (1 byte) | 3 reserved bytes
+ * sections : raw file bodies, each stored or deflated, back to back
+ * manifest : length (4 bytes) | UTF-8 JSON {@link com.backend.model.PackageManifest}
+ * footer   : manifest offset (8) | manifest length (4) | manifest CRC32 (4) | magic "PAPK" | version (1) | 3 reserved
+ * </pre>
+ *
+ * All integers are big-endian. The footer has a fixed size, so a reader can
+ * seek to the end, find the manifest and then any section directly. v1 is the
+ * original JSON package, optionally gzipped.
+ */
+public final class BinaryPackageFormat {
+
+    public static final byte[] MAGIC = "PAPK".getBytes(StandardCharsets.US_ASCII);
+    public static final byte VERSION = 2;
+    public static final int HEADER_SIZE = 8;
+    public static final int FOOTER_SIZE = 24;
+
+    public static final String COMPRESSION_STORE = "STORE";
+    public static final String COMPRESSION_DEFLATE = "DEFLATE";
+
+    // Formats that are already compressed; deflating them again only costs CPU
+    private static final Set<String> STORED_EXTENSIONS = Set.of(
+        "jpg", "jpeg", "png", "gif", "webp", "mp4", "mov", "avi", "webm", "mp3", "m4a", "aac", "ogg");
+
+    public enum Kind {
+        JSON, JSON_GZIP, BINARY_V2
+    }
+
+    private BinaryPackageFormat() {
+    }
+
+    /**
+     * Identify a package from its first bytes (at least 4 are needed).
+     */
+    public static Kind detect(byte[] head, int length) {
+        if (length >= MAGIC.length && head[0] == MAGIC[0] && head[1] == MAGIC[1]
+                && head[2] == MAGIC[2] && head[3] == MAGIC[3]) {
+            return Kind.BINARY_V2;
+        }
+        if (length >= 2 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b) {
+            return Kind.JSON_GZIP;
+        }
+        return Kind.JSON;
+    }
+
+    public static String compressionFor(String fileName) {
+        String extension = "";
+        if (fileName != null && fileName.contains(".")) {
+            extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        }
+        return STORED_EXTENSIONS.contains(extension) ? COMPRESSION_STORE : COMPRESSION_DEFLATE;
+    }
+}
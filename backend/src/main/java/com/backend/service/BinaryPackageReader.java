@@ -0,0 +1,243 @@
+package com.backend.service;
+
+import com.backend.model.PackageManifest;
+import com.backend.model.SerializableFileData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reader for v2 binary packages. The manifest is located through the footer,
+ * so inspecting a package costs two small reads regardless of its size; file
+ * sections are then read by offset and inflated into staging files, never
+ * past the size the manifest declares.
+ */
+@Component
+@RequiredArgsConstructor
+public class BinaryPackageReader {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ChecksumEngine checksumEngine;
+
+    // No single file can be larger than a whole package
+    @Value("${file.exchange.max-package-size:100MB}")
+    private DataSize maxEntrySize;
+
+    /**
+     * Positional reads from a package, however it is stored
+     */
+    @FunctionalInterface
+    private interface RangeReader {
+        ByteBuffer read(long position, int length) throws IOException;
+    }
+
+    public PackageManifest readManifest(Path packageFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(packageFile, StandardOpenOption.READ)) {
+            return readManifest(channel);
+        }
+    }
+
+    public PackageManifest readManifest(FileChannel channel) throws IOException {
+        return readManifest(channel.size(), (position, length) -> readFully(channel, position, length));
+    }
+
+    /**
+     * Read the manifest of a package available only as a stream, such as an
+     * upload. Each read opens the stream and skips to its position; for a
+     * file-backed stream the skip is a seek, so nothing but the footer and the
+     * manifest is read.
+     */
+    public PackageManifest readManifest(InputStreamSource source, long size) throws IOException {
+        return readManifest(size, (position, length) -> {
+            try (InputStream in = source.getInputStream()) {
+                in.skipNBytes(position);
+                byte[] bytes = in.readNBytes(length);
+                if (bytes.length < length) {
+                    throw new IOException("Unexpected end of package");
+                }
+                return ByteBuffer.wrap(bytes);
+            }
+        });
+    }
+
+    private PackageManifest readManifest(long size, RangeReader reader) throws IOException {
+        if (size < BinaryPackageFormat.HEADER_SIZE + BinaryPackageFormat.FOOTER_SIZE) {
+            throw new IOException("File is too small to be a v2 package");
+        }
+
+        ByteBuffer footer = reader.read(size - BinaryPackageFormat.FOOTER_SIZE, BinaryPackageFormat.FOOTER_SIZE);
+        long manifestOffset = footer.getLong();
+        int manifestLength = footer.getInt();
+        int expectedCrc = footer.getInt();
+        byte[] magic = new byte[BinaryPackageFormat.MAGIC.length];
+        footer.get(magic);
+        byte version = footer.get();
+
+        if (!Arrays.equals(magic, BinaryPackageFormat.MAGIC)) {
+            throw new IOException("Package footer is missing or corrupt");
+        }
+        if (version != BinaryPackageFormat.VERSION) {
+            throw new IOException("Unsupported package format version: " + version);
+        }
+        if (manifestOffset < BinaryPackageFormat.HEADER_SIZE || manifestLength < 0
+                || manifestOffset + 4 + manifestLength > size - BinaryPackageFormat.FOOTER_SIZE) {
+            throw new IOException("Package manifest location is out of range");
+        }
+
+        ByteBuffer manifestBuffer = reader.read(manifestOffset + 4, manifestLength);
+        CRC32 crc = new CRC32();
+        crc.update(manifestBuffer.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Package manifest checksum mismatch");
+        }
+
+        byte[] manifestBytes = new byte[manifestLength];
+        manifestBuffer.get(manifestBytes);
+        return objectMapper.readValue(manifestBytes, PackageManifest.class);
+    }
+
+    /**
+     * Read every section of the package in manifest order, handing each staged
+     * file to the visitor. Returns the manifest.
+     */
+    public PackageManifest read(Path packageFile, Path stagingDir, FilePackageStreamReader.FileVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(packageFile, StandardOpenOption.READ)) {
+            PackageManifest manifest = readManifest(channel);
+            for (PackageManifest.Entry entry : manifest.getEntries()) {
+                readEntry(channel, entry, stagingDir, visitor);
+            }
+            return manifest;
+        }
+    }
+
+    private void readEntry(FileChannel channel, PackageManifest.Entry entry, Path stagingDir,
+                           FilePackageStreamReader.FileVisitor visitor) throws IOException {
+        SerializableFileData metadata = entry.getFile();
+        if (entry.getOffset() < BinaryPackageFormat.HEADER_SIZE || entry.getStoredLength() < 0
+                || entry.getOffset() + entry.getStoredLength() > channel.size()) {
+            throw new IOException("Section for " + metadata.getFileName() + " is out of range");
+        }
+
+        long limit = entryLimit(metadata);
+        Path staged = Files.createTempFile(stagingDir, "import-", ".tmp");
+        String actualChecksum;
+        try {
+            MessageDigest digest = checksumEngine.newSha256();
+            InputStream section = new SectionInputStream(channel, entry.getOffset(), entry.getStoredLength());
+            if (BinaryPackageFormat.COMPRESSION_DEFLATE.equals(entry.getCompression())) {
+                section = new InflaterInputStream(section);
+            }
+            try (InputStream in = section;
+                 OutputStream out = new DigestOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(staged), WRITE_BUFFER_SIZE), digest)) {
+                copyAtMost(in, out, limit, metadata.getFileName());
+            }
+            actualChecksum = checksumEngine.toHex(digest.digest());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+
+        visitor.onFile(metadata, staged, actualChecksum);
+    }
+
+    /**
+     * Most bytes a section may produce: its declared size, or the configured
+     * maximum when the manifest does not give one.
+     */
+    private long entryLimit(SerializableFileData metadata) {
+        Long declared = metadata.getFileSize();
+        return declared != null && declared >= 0 ? Math.min(declared, maxEntrySize.toBytes()) : maxEntrySize.toBytes();
+    }
+
+    /**
+     * Copy a section, failing as soon as it grows past {@code limit}, so a
+     * small deflated section cannot expand to fill the disk.
+     */
+    private void copyAtMost(InputStream in, OutputStream out, long limit, String fileName) throws IOException {
+        byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+        long copied = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            copied += read;
+            if (copied > limit) {
+                throw new IOException("Section for " + fileName + " is larger than its declared size of " + limit + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of package");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Bounded view of one section using positional reads, so the shared channel
+     * position is never moved.
+     */
+    private static class SectionInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        SectionInputStream(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, remaining);
+            int read = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of package");
+            }
+            position += read;
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // The channel belongs to the caller
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.backend.service;
+
+import com.backend.model.ExportPlan;
+import com.backend.model.PackageManifest;
+import com.backend.model.SerializableFileData;
+import com.backend.model.SerializableFilePackage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an {@link ExportPlan} in the v2 binary format described in
+ * {@link BinaryPackageFormat}. Sections are written sequentially and the
+ * manifest and footer last, so the output can go straight to a response.
+ * Sections can be read and deflated ahead on the file I/O pool through a
+ * {@link FilePrefetcher} using {@link #prepareSection}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BinaryPackageWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ChecksumEngine checksumEngine;
+    private final FileChecksumCache checksumCache;
+
+    /**
+     * A section read and, if needed, deflated ahead of the writer
+     */
+    public record PreparedSection(byte[] stored, String checksum) {
+    }
+
+    public void write(ExportPlan plan, OutputStream target) throws IOException {
+        write(plan, target, PackageProgressListener.NONE, null);
+    }
+
+    /**
+     * Write the package. With {@code prefetcher} (may be null) sections come
+     * from it in plan order; otherwise each file is streamed from disk.
+     */
+    public void write(ExportPlan plan, OutputStream target, PackageProgressListener progress,
+                      FilePrefetcher<PreparedSection> prefetcher) throws IOException {
+        CountingOutputStream out = new CountingOutputStream(target);
+        ChecksumEngine.PackageDigest packageDigest = checksumEngine.newPackageDigest();
+        List<PackageManifest.Entry> entries = new ArrayList<>(plan.getEntries().size());
+        long totalSize = 0;
+
+        out.write(BinaryPackageFormat.MAGIC);
+        out.write(new byte[] {BinaryPackageFormat.VERSION, 0, 0, 0});
+
+        for (ExportPlan.Entry planEntry : plan.getEntries()) {
+            PreparedSection prepared = prefetcher != null ? prefetcher.next() : null;
+            PackageManifest.Entry entry = prepared != null
+                ? writeSection(planEntry, prepared, out)
+                : writeSection(planEntry, out);
+            packageDigest.add(entry.getFile().getChecksum());
+            totalSize += entry.getFile().getFileSize();
+            entries.add(entry);
+            progress.onProgress(entries.size(), totalSize);
+        }
+
+        SerializableFilePackage header = plan.getHeader();
+        header.setFiles(null);
+        header.setTotalFiles(entries.size());
+        header.setTotalSizeBytes(totalSize);
+        header.setPackageChecksum(packageDigest.finish());
+
+        PackageManifest manifest = PackageManifest.builder()
+            .formatVersion(BinaryPackageFormat.VERSION)
+            .header(header)
+            .entries(entries)
+            .build();
+        byte[] manifestBytes = objectMapper.writeValueAsBytes(manifest);
+
+        CRC32 crc = new CRC32();
+        crc.update(manifestBytes);
+
+        long manifestOffset = out.getCount();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(manifestBytes.length);
+        data.write(manifestBytes);
+
+        data.writeLong(manifestOffset);
+        data.writeInt(manifestBytes.length);
+        data.writeInt((int) crc.getValue());
+        data.write(BinaryPackageFormat.MAGIC);
+        data.write(new byte[] {BinaryPackageFormat.VERSION, 0, 0, 0});
+        data.flush();
+
+        log.info("Wrote v2 package {} with {} files ({} bytes of content, {} bytes total)",
+            header.getPackageId(), entries.size(), totalSize, out.getCount());
+    }
+
+    /**
+     * Read a file and encode it as its section. Safe to run on any thread.
+     */
+    public PreparedSection prepareSection(ExportPlan.Entry planEntry) throws IOException {
+        byte[] content = Files.readAllBytes(planEntry.getSource());
+        String checksum = checksumEngine.sha256(content);
+        if (!BinaryPackageFormat.COMPRESSION_DEFLATE.equals(BinaryPackageFormat.compressionFor(planEntry.getMetadata().getFileName()))) {
+            return new PreparedSection(content, checksum);
+        }
+
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream(content.length / 2 + 64);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(deflated, deflater, BUFFER_SIZE)) {
+            deflaterOut.write(content);
+        } finally {
+            deflater.end();
+        }
+        return new PreparedSection(deflated.toByteArray(), checksum);
+    }
+
+    private PackageManifest.Entry writeSection(ExportPlan.Entry planEntry, PreparedSection prepared,
+                                               CountingOutputStream out) throws IOException {
+        long offset = out.getCount();
+        out.write(prepared.stored());
+        return finishSection(planEntry, prepared.checksum(), offset, out);
+    }
+
+    private PackageManifest.Entry writeSection(ExportPlan.Entry planEntry, CountingOutputStream out) throws IOException {
+        SerializableFileData file = planEntry.getMetadata();
+        String compression = BinaryPackageFormat.compressionFor(file.getFileName());
+        long offset = out.getCount();
+
+        MessageDigest fileDigest = checksumEngine.newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(planEntry.getSource()), fileDigest)) {
+            if (BinaryPackageFormat.COMPRESSION_DEFLATE.equals(compression)) {
+                Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+                try {
+                    DeflaterOutputStream deflaterOut = new DeflaterOutputStream(new NonClosingOutputStream(out), deflater, BUFFER_SIZE);
+                    in.transferTo(deflaterOut);
+                    deflaterOut.finish();
+                } finally {
+                    deflater.end();
+                }
+            } else {
+                in.transferTo(out);
+            }
+        }
+
+        return finishSection(planEntry, checksumEngine.toHex(fileDigest.digest()), offset, out);
+    }
+
+    private PackageManifest.Entry finishSection(ExportPlan.Entry planEntry, String checksum, long offset,
+                                                CountingOutputStream out) {
+        SerializableFileData file = planEntry.getMetadata();
+        String compression = BinaryPackageFormat.compressionFor(file.getFileName());
+        file.setChecksum(checksum);
+        checksumCache.put(planEntry.getSource(), file.getChecksum());
+        file.setFileContent(null);
+        file.setCompressionType(compression);
+
+        return PackageManifest.Entry.builder()
+            .file(file)
+            .offset(offset)
+            .storedLength(out.getCount() - offset)
+            .compression(compression)
+            .build();
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
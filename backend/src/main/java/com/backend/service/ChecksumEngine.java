@@ -0,0 +1,167 @@
+package com.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Checksums for file exchange. SHA-256 digests are cached per thread (and
+ * cloned for streaming use) instead of being looked up through the provider
+ * on every call, files are hashed through a per-thread direct buffer, and hex
+ * encoding uses {@link HexFormat}. CRC32C is available where only accidental
+ * corruption needs to be detected; it is hardware accelerated and several
+ * times faster than SHA-256.
+ */
+@Component
+public class ChecksumEngine {
+
+    public enum Algorithm {
+        SHA256, CRC32C
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final MessageDigest SHA256_PROTOTYPE = createSha256();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(ChecksumEngine::cloneSha256);
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    public String sha256(byte[] data) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return HEX.formatHex(digest.digest(data));
+    }
+
+    public String sha256(Path file) throws IOException {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        ByteBuffer buffer = BUFFER.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    public String crc32c(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return toHex(crc);
+    }
+
+    public String crc32c(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = BUFFER.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return toHex(crc);
+    }
+
+    public String checksum(Path file, Algorithm algorithm) throws IOException {
+        return algorithm == Algorithm.CRC32C ? crc32c(file) : sha256(file);
+    }
+
+    /**
+     * A fresh SHA-256 digest, for streaming use (e.g. {@link java.security.DigestInputStream})
+     * where the digest outlives a single call.
+     */
+    public MessageDigest newSha256() {
+        return cloneSha256();
+    }
+
+    public String toHex(byte[] digest) {
+        return HEX.formatHex(digest);
+    }
+
+    /**
+     * Start a package checksum: SHA-256 over the concatenated hex checksums of its files.
+     */
+    public PackageDigest newPackageDigest() {
+        return new PackageDigest(cloneSha256());
+    }
+
+    public String packageChecksum(Iterable<String> fileChecksums) {
+        PackageDigest digest = newPackageDigest();
+        for (String checksum : fileChecksums) {
+            digest.add(checksum);
+        }
+        return digest.finish();
+    }
+
+    public static class PackageDigest {
+
+        private final MessageDigest digest;
+        private final byte[] scratch = new byte[64];
+
+        private PackageDigest(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        public void add(String checksum) {
+            int length = checksum.length();
+            if (length > scratch.length || !isAscii(checksum)) {
+                digest.update(checksum.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            // Hex checksums are ASCII, so each char is its own UTF-8 byte
+            for (int i = 0; i < length; i++) {
+                scratch[i] = (byte) checksum.charAt(i);
+            }
+            digest.update(scratch, 0, length);
+        }
+
+        public String finish() {
+            return HEX.formatHex(digest.digest());
+        }
+
+        private static boolean isAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > 0x7f) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static String toHex(Checksum checksum) {
+        return HEX.toHexDigits((int) checksum.getValue());
+    }
+
+    private static MessageDigest cloneSha256() {
+        try {
+            return (MessageDigest) SHA256_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return createSha256();
+        }
+    }
+
+    private static MessageDigest createSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
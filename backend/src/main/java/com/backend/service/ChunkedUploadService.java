@@ -0,0 +1,260 @@
+package com.backend.service;
+
+import com.backend.model.UploadSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable chunked uploads: create a session, PUT chunks at chunk-aligned
+ * offsets (in any order, concurrently), then finalize. Chunks are written
+ * straight into a preallocated part file, so nothing is buffered in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final Set<String> MEDIA_TYPES = Set.of("photo", "video", "audio");
+
+    private final FileStorageService fileStorageService;
+    private final ChecksumEngine checksumEngine;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${file.upload.chunked.dir:data/uploads}")
+    private String partDir;
+
+    @Value("${file.upload.chunked.chunk-size:5MB}")
+    private DataSize chunkSize;
+
+    @Value("${file.upload.chunked.max-file-size:500MB}")
+    private DataSize maxFileSize;
+
+    @Value("${file.upload.chunked.session-ttl-minutes:60}")
+    private long sessionTtlMinutes;
+
+    @Value("${file.upload.chunked.max-sessions-per-user:3}")
+    private int maxSessionsPerUser;
+
+    public UploadSession createSession(Long ownerId, String fileName, String mediaType, long totalSize, String checksum) throws IOException {
+        if (!MEDIA_TYPES.contains(mediaType)) {
+            throw new IllegalArgumentException("Unsupported media type: " + mediaType);
+        }
+        if (totalSize <= 0 || totalSize > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("File size must be between 1 byte and " + maxFileSize);
+        }
+        if (checksum != null && !checksum.isBlank() && !checksum.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("Checksum must be a hex encoded SHA-256 digest");
+        }
+
+        Path parts = Paths.get(partDir);
+        Files.createDirectories(parts);
+
+        String uploadId = UUID.randomUUID().toString();
+        Path partFile = parts.resolve(uploadId + PART_SUFFIX);
+        UploadSession session = new UploadSession(uploadId, ownerId, fileName, mediaType, totalSize,
+            (int) chunkSize.toBytes(), checksum != null && !checksum.isBlank() ? checksum.toLowerCase() : null, partFile);
+
+        // Counting and registering under one lock keeps concurrent requests from overshooting the cap
+        synchronized (sessions) {
+            long open = sessions.values().stream().filter(existing -> ownerId.equals(existing.getOwnerId())).count();
+            if (open >= maxSessionsPerUser) {
+                throw new IllegalStateException("Too many open upload sessions (limit " + maxSessionsPerUser
+                    + "); complete or abort one first");
+            }
+            sessions.put(uploadId, session);
+        }
+
+        // Preallocate (sparse) so chunks can be written at their final offsets
+        try (RandomAccessFile raf = new RandomAccessFile(partFile.toFile(), "rw")) {
+            raf.setLength(totalSize);
+        } catch (IOException e) {
+            sessions.remove(uploadId);
+            deletePartFile(partFile);
+            throw e;
+        }
+
+        log.info("Created upload session {} for {} ({} bytes, {} chunks)",
+            uploadId, fileName, totalSize, session.getTotalChunks());
+        return session;
+    }
+
+    /**
+     * Look up a session of the given user. Sessions of other users are reported
+     * as not found.
+     */
+    public UploadSession getSession(String uploadId, Long ownerId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.getOwnerId().equals(ownerId)) {
+            throw new RuntimeException("Upload session not found: " + uploadId);
+        }
+        return session;
+    }
+
+    /**
+     * Write one chunk at its offset. Re-sending a chunk simply overwrites it,
+     * which is what a client does when resuming after a dropped connection.
+     */
+    public UploadSession acceptChunk(String uploadId, Long ownerId, long offset, InputStream body) throws IOException {
+        UploadSession session = getSession(uploadId, ownerId);
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new IllegalArgumentException("Offset must be a multiple of the chunk size (" + session.getChunkSize() + ")");
+        }
+        if (!session.beginChunk()) {
+            throw new IllegalStateException("Upload session is not accepting chunks: " + uploadId);
+        }
+        try {
+            writeChunk(session, offset, body);
+        } finally {
+            session.endChunk();
+        }
+        return session;
+    }
+
+    private void writeChunk(UploadSession session, long offset, InputStream body) throws IOException {
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        long expectedLength = session.expectedChunkLength(chunkIndex);
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(session.getPartFile(), StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(body)) {
+            while (written < expectedLength) {
+                long transferred = channel.transferFrom(source, offset + written, expectedLength - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            if (written == expectedLength && body.read() != -1) {
+                throw new IllegalArgumentException("Chunk " + chunkIndex + " is larger than " + expectedLength + " bytes");
+            }
+        }
+
+        if (written != expectedLength) {
+            throw new IllegalArgumentException("Incomplete chunk " + chunkIndex + ": received " + written
+                + " of " + expectedLength + " bytes");
+        }
+
+        session.markReceived(chunkIndex);
+        log.debug("Upload {} received chunk {}/{}", session.getUploadId(), chunkIndex + 1, session.getTotalChunks());
+    }
+
+    /**
+     * Verify that every chunk arrived and the assembled file matches the declared
+     * checksum, then move it into media storage. Returns the stored filename.
+     */
+    public String completeSession(String uploadId, Long ownerId) throws IOException {
+        UploadSession session = getSession(uploadId, ownerId);
+        // From here on chunk writes are refused, so the file cannot change under the checksum
+        if (!session.beginCompleting()) {
+            throw new IllegalStateException("Upload session is already being finalized or still receiving chunks: " + uploadId);
+        }
+        if (!session.isAllChunksReceived()) {
+            session.transition(UploadSession.State.COMPLETING, UploadSession.State.ACTIVE);
+            throw new IllegalStateException("Upload is missing " + (session.getTotalChunks() - session.getReceivedChunkCount())
+                + " chunk(s)");
+        }
+
+        try {
+            // Only hash when the client declared a checksum to compare against
+            if (session.getExpectedChecksum() != null
+                    && !session.getExpectedChecksum().equals(checksumEngine.sha256(session.getPartFile()))) {
+                session.transition(UploadSession.State.COMPLETING, UploadSession.State.ACTIVE);
+                throw new IllegalStateException("Integrity check failed: checksum mismatch for " + session.getFileName());
+            }
+
+            String filename = fileStorageService.storeFromPath(session.getPartFile(), session.getMediaType(), session.getFileName());
+            session.transition(UploadSession.State.COMPLETING, UploadSession.State.COMPLETED);
+            sessions.remove(uploadId);
+
+            log.info("Upload session {} completed as {}", uploadId, filename);
+            return filename;
+        } catch (IOException e) {
+            session.transition(UploadSession.State.COMPLETING, UploadSession.State.ACTIVE);
+            throw e;
+        }
+    }
+
+    public void abortSession(String uploadId, Long ownerId) {
+        UploadSession session = getSession(uploadId, ownerId);
+        if (!sessions.remove(uploadId, session)) {
+            throw new RuntimeException("Upload session not found: " + uploadId);
+        }
+        deletePartFile(session.getPartFile());
+        log.info("Upload session {} aborted", uploadId);
+    }
+
+    /**
+     * Drop sessions without activity for longer than the TTL, together with part
+     * files left behind by sessions that no longer exist (e.g. after a restart).
+     */
+    @Scheduled(fixedDelayString = "${file.upload.chunked.sweep-interval-ms:300000}")
+    public void expireStaleSessions() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(sessionTtlMinutes);
+        int expired = 0;
+
+        Iterator<UploadSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            UploadSession session = iterator.next();
+            if (session.getLastActivityMillis() < cutoff && session.getState() == UploadSession.State.ACTIVE) {
+                iterator.remove();
+                deletePartFile(session.getPartFile());
+                expired++;
+            }
+        }
+
+        Path parts = Paths.get(partDir);
+        if (Files.isDirectory(parts)) {
+            try (DirectoryStream<Path> partFiles = Files.newDirectoryStream(parts, "*" + PART_SUFFIX)) {
+                for (Path part : partFiles) {
+                    String uploadId = part.getFileName().toString().replace(PART_SUFFIX, "");
+                    if (!sessions.containsKey(uploadId) && Files.getLastModifiedTime(part).toMillis() < cutoff) {
+                        deletePartFile(part);
+                        expired++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Error scanning upload part directory: {}", e.getMessage());
+            }
+        }
+
+        if (expired > 0) {
+            log.info("Expired {} stale upload session(s)", expired);
+        }
+    }
+
+    public long getSessionExpiresAtMillis(UploadSession session) {
+        return session.getLastActivityMillis() + TimeUnit.MINUTES.toMillis(sessionTtlMinutes);
+    }
+
+    private void deletePartFile(Path partFile) {
+        try {
+            Files.deleteIfExists(partFile);
+        } catch (IOException e) {
+            log.warn("Could not delete upload part file {}: {}", partFile, e.getMessage());
+        }
+    }
+}
@@ -5,17 +5,25 @@ import com.backend.model.*;
 import com.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -26,19 +34,45 @@ import java.util.zip.GZIPOutputStream;
 public class CrossPlatformFileExchangeService {
     
     private final MultiMediaRepository multiMediaRepository;
-    private final AnimalRepository animalRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final FilePackageStreamReader packageReader;
+    private final BinaryPackageReader binaryPackageReader;
+    private final FilePackageStreamWriter packageWriter;
+    private final BinaryPackageWriter binaryPackageWriter;
+    private final FileChecksumCache checksumCache;
+    private final ChecksumEngine checksumEngine;
+    private final ImportPlanner importPlanner;
+    
+    @Qualifier("fileIoThreadPoolTaskExecutor")
+    private final Executor fileIoExecutor;
+    
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
     
     @Value("${file.upload.dir:uploads}")
     private String uploadDir;
     
+    @Value("${file.exchange.staging-dir:data/staging}")
+    private String stagingDir;
+    
     @Value("${app.version:1.0}")
     private String appVersion;
     
     @Value("${app.name:Pet-Adoption-Backend}")
     private String appName;
     
+    @Value("${file.exchange.max-package-size:100MB}")
+    private DataSize maxPackageSize;
+    
+    @Value("${file.exchange.import.batch-size:50}")
+    private int importBatchSize;
+    
+    @Value("${file.exchange.export.prefetch-files:4}")
+    private int prefetchFiles;
+    
+    @Value("${file.exchange.export.prefetch-bytes:32MB}")
+    private DataSize prefetchBytes;
+    
     /**
      * Export files as a serializable package
      */
@@ -51,9 +85,23 @@ public class CrossPlatformFileExchangeService {
             User exportUser = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
             
-            // Load and serialize files
-            List<SerializableFileData> serializedFiles = request.getFileIds().stream()
-                .map(fileId -> loadAndSerializeFile(fileId, request.isIncludeMetadata()))
+            // Metadata is resolved here inside the transaction; only reading and
+            // hashing file bodies runs on the I/O pool
+            Map<Long, MultiMedia> rows = loadMultiMedia(request.getFileIds());
+            List<CompletableFuture<SerializableFileData>> pendingFiles = new ArrayList<>();
+            for (Long fileId : request.getFileIds()) {
+                MultiMedia multiMedia = rows.get(fileId);
+                if (multiMedia == null) {
+                    log.warn("File not found: {}", fileId);
+                    continue;
+                }
+                SerializableFileData fileData = buildFileMetadata(multiMedia, request.isIncludeMetadata());
+                pendingFiles.add(CompletableFuture.supplyAsync(() -> loadAndSerializeFile(fileData), fileIoExecutor));
+            }
+            
+            // Join in request order so the package layout and checksum are deterministic
+            List<SerializableFileData> serializedFiles = pendingFiles.stream()
+                .map(CompletableFuture::join)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
             
@@ -63,28 +111,11 @@ public class CrossPlatformFileExchangeService {
                 .sum();
             
             // Create package
-            SerializableFilePackage filePackage = SerializableFilePackage.builder()
-                .packageId(UUID.randomUUID().toString())
-                .packageName(request.getPackageName() != null ? request.getPackageName() : "Exported Files")
-                .description(request.getDescription())
-                .packageVersion("1.0")
-                .createdAt(LocalDateTime.now())
-                .createdBy(exportUser.getFirstName() + " " + exportUser.getLastName())
-                .createdByUserId(userId)
-                .sourceSystem(appName)
-                .sourceVersion(appVersion)
-                .files(serializedFiles)
-                .totalFiles(serializedFiles.size())
-                .totalSizeBytes(totalSize)
-                .isCompressed(request.isCompressPackage())
-                .includesMetadata(request.isIncludeMetadata())
-                .compressionAlgorithm(request.isCompressPackage() ? "GZIP" : "NONE")
-                .packageChecksum(calculatePackageChecksum(serializedFiles))
-                .lastModified(LocalDateTime.now())
-                .exportHistory(Arrays.asList("Exported on " + LocalDateTime.now()))
-                .minRequiredVersion("1.0")
-                .supportedFormats(Arrays.asList("JPEG", "PNG", "MP4", "MP3", "WAV"))
-                .build();
+            SerializableFilePackage filePackage = buildPackageHeader(request, exportUser);
+            filePackage.setFiles(serializedFiles);
+            filePackage.setTotalFiles(serializedFiles.size());
+            filePackage.setTotalSizeBytes(totalSize);
+            filePackage.setPackageChecksum(calculatePackageChecksum(serializedFiles));
             
             log.info("Successfully exported package {} with {} files", filePackage.getPackageId(), serializedFiles.size());
             return filePackage;
@@ -95,6 +126,159 @@ public class CrossPlatformFileExchangeService {
         }
     }
     
+    /**
+     * Resolve package metadata and file locations for a streaming export.
+     * No file bodies are read here; they are streamed by {@link FilePackageStreamWriter}.
+     */
+    @Transactional(readOnly = true)
+    public ExportPlan planExport(FilePackageRequest request, Long userId) {
+        log.info("Planning export of {} files for user {}", request.getFileIds().size(), userId);
+        
+        User exportUser = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        
+        Map<Long, MultiMedia> rows = loadMultiMedia(request.getFileIds());
+        List<ExportPlan.Entry> entries = new ArrayList<>();
+        long totalSize = 0;
+        for (Long fileId : request.getFileIds()) {
+            MultiMedia multiMedia = rows.get(fileId);
+            if (multiMedia == null) {
+                log.warn("File not found: {}", fileId);
+                continue;
+            }
+            
+            String fileName = extractFilenameFromUrl(multiMedia.getUrl());
+            Path source = fileStorageService.resolvePath(multiMedia.getMedia().toString(), fileName);
+            try {
+                SerializableFileData metadata = buildFileMetadata(multiMedia, request.isIncludeMetadata());
+                metadata.setFileSize(Files.size(source));
+                totalSize += metadata.getFileSize();
+                entries.add(new ExportPlan.Entry(metadata, source));
+            } catch (IOException e) {
+                log.warn("Skipping file {}: {}", fileId, e.getMessage());
+            }
+        }
+        
+        if (totalSize > maxPackageSize.toBytes()) {
+            throw new RuntimeException("Package size " + totalSize + " bytes exceeds the limit of " + maxPackageSize);
+        }
+        
+        return new ExportPlan(buildPackageHeader(request, exportUser), entries);
+    }
+    
+    /**
+     * Write a planned export in the requested format: v2 binary, or v1 JSON,
+     * gzipped if requested. The caller owns (and closes) {@code out}. Upcoming
+     * files are read and encoded on the I/O pool while the current one is
+     * written, within the prefetch limits.
+     */
+    public void writePackage(ExportPlan plan, FilePackageRequest request, OutputStream out,
+                             PackageProgressListener progress) throws IOException {
+        if ("v2".equals(request.getFormat())) {
+            // v2 compresses per entry, so the package itself is never gzipped
+            BufferedOutputStream bufferedOut = new BufferedOutputStream(out, STREAM_BUFFER_SIZE);
+            try (FilePrefetcher<BinaryPackageWriter.PreparedSection> prefetcher = prefetcher(plan, binaryPackageWriter::prepareSection)) {
+                binaryPackageWriter.write(plan, bufferedOut, progress, prefetcher);
+            }
+            bufferedOut.flush();
+        } else if (request.isCompressPackage()) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, STREAM_BUFFER_SIZE);
+            try (FilePrefetcher<FilePackageStreamWriter.PreparedFile> prefetcher = prefetcher(plan, packageWriter::prepareFile)) {
+                packageWriter.writeJson(plan, gzipOut, progress, prefetcher);
+            }
+            gzipOut.finish();
+        } else {
+            BufferedOutputStream bufferedOut = new BufferedOutputStream(out, STREAM_BUFFER_SIZE);
+            try (FilePrefetcher<FilePackageStreamWriter.PreparedFile> prefetcher = prefetcher(plan, packageWriter::prepareFile)) {
+                packageWriter.writeJson(plan, bufferedOut, progress, prefetcher);
+            }
+            bufferedOut.flush();
+        }
+    }
+    
+    private <T> FilePrefetcher<T> prefetcher(ExportPlan plan, FilePrefetcher.Loader<T> loader) {
+        return new FilePrefetcher<>(plan.getEntries(), fileIoExecutor, loader, prefetchFiles, prefetchBytes.toBytes());
+    }
+    
+    /**
+     * Download file name for an export
+     */
+    public String exportFileName(FilePackageRequest request) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        return String.format("%s_%s.%s", 
+            request.getPackageName() != null ? request.getPackageName().replaceAll("[^a-zA-Z0-9]", "_") : "FilePackage",
+            timestamp,
+            "v2".equals(request.getFormat()) ? "pkg2" : request.isCompressPackage() ? "pkg.gz" : "pkg.json");
+    }
+    
+    /**
+     * Build a package preview from MULTIMEDIA rows and file stats only. File
+     * bodies are never read; checksums are reported when already cached from an
+     * earlier export, and the package checksum only when all of them are known.
+     */
+    @Transactional(readOnly = true)
+    public SerializableFilePackage previewExport(FilePackageRequest request, Long userId) {
+        User exportUser = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        
+        Map<Long, MultiMedia> rows = loadMultiMedia(request.getFileIds());
+        List<SerializableFileData> files = new ArrayList<>();
+        boolean allChecksumsKnown = true;
+        long totalSize = 0;
+        for (Long fileId : request.getFileIds()) {
+            MultiMedia multiMedia = rows.get(fileId);
+            if (multiMedia == null) {
+                log.warn("File not found: {}", fileId);
+                continue;
+            }
+            
+            SerializableFileData metadata = buildFileMetadata(multiMedia, request.isIncludeMetadata());
+            Path source = fileStorageService.resolvePath(metadata.getMediaType(), metadata.getFileName());
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+                metadata.setFileSize(attributes.size());
+                metadata.setChecksum(checksumCache.get(source, attributes));
+            } catch (IOException e) {
+                log.warn("Skipping file {}: {}", fileId, e.getMessage());
+                continue;
+            }
+            
+            allChecksumsKnown &= metadata.getChecksum() != null;
+            totalSize += metadata.getFileSize();
+            files.add(metadata);
+        }
+        
+        SerializableFilePackage preview = buildPackageHeader(request, exportUser);
+        preview.setFiles(files);
+        preview.setTotalFiles(files.size());
+        preview.setTotalSizeBytes(totalSize);
+        preview.setPackageChecksum(allChecksumsKnown && !files.isEmpty() ? calculatePackageChecksum(files) : null);
+        return preview;
+    }
+    
+    private SerializableFilePackage buildPackageHeader(FilePackageRequest request, User exportUser) {
+        boolean binary = "v2".equals(request.getFormat());
+        
+        return SerializableFilePackage.builder()
+            .packageId(UUID.randomUUID().toString())
+            .packageName(request.getPackageName() != null ? request.getPackageName() : "Exported Files")
+            .description(request.getDescription())
+            .packageVersion(binary ? "2.0" : "1.0")
+            .createdAt(LocalDateTime.now())
+            .createdBy(exportUser.getFirstName() + " " + exportUser.getLastName())
+            .createdByUserId(exportUser.getUserId())
+            .sourceSystem(appName)
+            .sourceVersion(appVersion)
+            .isCompressed(!binary && request.isCompressPackage())
+            .includesMetadata(request.isIncludeMetadata())
+            .compressionAlgorithm(binary ? "PER_ENTRY" : request.isCompressPackage() ? "GZIP" : "NONE")
+            .lastModified(LocalDateTime.now())
+            .exportHistory(Arrays.asList("Exported on " + LocalDateTime.now()))
+            .minRequiredVersion("1.0")
+            .supportedFormats(Arrays.asList("JPEG", "PNG", "MP4", "MP3", "WAV"))
+            .build();
+    }
+    
     /**
      * Import files from a serializable package
      */
@@ -111,14 +295,16 @@ public class CrossPlatformFileExchangeService {
             User importUser = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
             
+            List<SerializableFileData> storedFiles = new ArrayList<>();
             List<String> importedFiles = new ArrayList<>();
             List<String> failedFiles = new ArrayList<>();
             long totalBytesImported = 0;
             
             for (SerializableFileData fileData : filePackage.getFiles()) {
                 try {
-                    // Import individual file
-                    String result = importSerializedFile(fileData, importUser);
+                    // Store individual file; rows are written together below
+                    String result = importSerializedFile(fileData);
+                    storedFiles.add(fileData);
                     importedFiles.add(result);
                     totalBytesImported += fileData.getFileSize() != null ? fileData.getFileSize() : 0;
                     
@@ -128,6 +314,17 @@ public class CrossPlatformFileExchangeService {
                 }
             }
             
+            if (!storedFiles.isEmpty()) {
+                try {
+                    importPlanner.begin(importUser).commit(storedFiles, importedFiles);
+                } catch (RuntimeException e) {
+                    for (int i = 0; i < storedFiles.size(); i++) {
+                        fileStorageService.deleteFile(storedFiles.get(i).getMediaType(), importedFiles.get(i));
+                    }
+                    throw e;
+                }
+            }
+            
             // Create import summary
             Map<String, Object> importResult = new HashMap<>();
             importResult.put("packageId", filePackage.getPackageId());
@@ -151,75 +348,420 @@ public class CrossPlatformFileExchangeService {
     }
     
     /**
-     * Load and serialize a single file
+     * Import files from a v1 package stream. Each file is decoded straight to
+     * disk and verified as it is read; MULTIMEDIA rows are committed in batches,
+     * so memory use is flat. A package that cannot be read to the end or fails
+     * the package-level checks is rolled back as a whole.
+     */
+    public Map<String, Object> importFilePackageStream(InputStream packageStream, Long userId) {
+        log.info("Starting streaming import for user {}", userId);
+        return importPackage(userId, (stagingDir, visitor) -> packageReader.read(packageStream, stagingDir, visitor),
+            null, PackageProgressListener.NONE, null);
+    }
+    
+    /**
+     * Import files from a v2 binary package. The package needs random access, so
+     * the upload is moved to the staging directory first.
+     */
+    public Map<String, Object> importBinaryPackage(MultipartFile packageFile, Long userId) {
+        log.info("Starting binary package import for user {}", userId);
+        Path spooled = null;
+        try {
+            spooled = spoolToStaging(packageFile);
+            Path packagePath = spooled;
+            return importPackage(userId, (stagingDir, visitor) ->
+                binaryPackageReader.read(packagePath, stagingDir, visitor).getHeader(),
+                null, PackageProgressListener.NONE, null);
+        } catch (IOException e) {
+            log.error("Error spooling binary package: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to import file package: " + e.getMessage());
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+    
+    /**
+     * Import a package of any format from a local file. With a checkpoint, files
+     * the checkpoint already accounts for are skipped; {@code onCheckpoint} (may
+     * be null) is called after every committed batch, and with null once the
+     * import has been rolled back. When it is given, batches committed before a
+     * read failure are kept so the import can be resumed.
+     */
+    public Map<String, Object> importPackageFile(Path packageFile, boolean isCompressed, Long userId,
+                                                 ImportCheckpoint resumeFrom, PackageProgressListener progress,
+                                                 Consumer<ImportCheckpoint> onCheckpoint) {
+        BinaryPackageFormat.Kind kind;
+        try (InputStream in = Files.newInputStream(packageFile)) {
+            byte[] head = in.readNBytes(BinaryPackageFormat.MAGIC.length);
+            kind = BinaryPackageFormat.detect(head, head.length);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file package: " + e.getMessage());
+        }
+        
+        log.info("Starting {} import of {} for user {}{}", kind, packageFile.getFileName(), userId,
+            resumeFrom != null ? " from file " + resumeFrom.getFilesProcessed() : "");
+        
+        if (kind == BinaryPackageFormat.Kind.BINARY_V2) {
+            return importPackage(userId, (stagingDir, visitor) ->
+                binaryPackageReader.read(packageFile, stagingDir, visitor).getHeader(),
+                resumeFrom, progress, onCheckpoint);
+        }
+        
+        boolean gzip = kind == BinaryPackageFormat.Kind.JSON_GZIP || isCompressed;
+        return importPackage(userId, (stagingDir, visitor) -> {
+            try (InputStream in = gzip
+                    ? new GZIPInputStream(Files.newInputStream(packageFile), STREAM_BUFFER_SIZE)
+                    : new BufferedInputStream(Files.newInputStream(packageFile), STREAM_BUFFER_SIZE)) {
+                return packageReader.read(in, stagingDir, visitor);
+            }
+        }, resumeFrom, progress, onCheckpoint);
+    }
+    
+    /**
+     * Read only the manifest of a v2 binary package, in place: the footer and
+     * manifest are read from the stored upload without copying it
      */
-    private SerializableFileData loadAndSerializeFile(Long fileId, boolean includeMetadata) {
+    public PackageManifest readBinaryManifest(MultipartFile packageFile) {
         try {
-            // Load multimedia record
-            MultiMedia multiMedia = multiMediaRepository.findById(fileId)
-                .orElse(null);
+            return binaryPackageReader.readManifest(packageFile, packageFile.getSize());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read package manifest: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Read the metadata of a v1 package, skipping file content
+     */
+    public SerializableFilePackage readPackageMetadata(InputStream packageStream) throws IOException {
+        return packageReader.readMetadata(packageStream);
+    }
+    
+    /**
+     * Source of files for {@link #importPackage}: reads a package of any format,
+     * handing each file to the visitor, and returns the package header.
+     */
+    @FunctionalInterface
+    private interface PackageSource {
+        SerializableFilePackage read(Path stagingDir, FilePackageStreamReader.FileVisitor visitor) throws IOException;
+    }
+    
+    private Map<String, Object> importPackage(Long userId, PackageSource source, ImportCheckpoint resumeFrom,
+                                              PackageProgressListener progress, Consumer<ImportCheckpoint> onCheckpoint) {
+        try {
+            // Get importing user
+            User importUser = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
             
-            if (multiMedia == null) {
-                log.warn("File not found: {}", fileId);
-                return null;
+            Path staging = Paths.get(stagingDir);
+            Files.createDirectories(staging);
+            
+            StreamingImport streamingImport = new StreamingImport(importUser, resumeFrom, progress, onCheckpoint);
+            SerializableFilePackage header;
+            try {
+                header = source.read(staging, streamingImport::accept);
+            } catch (IOException | RuntimeException e) {
+                // Without checkpoints there is nothing to resume, so a truncated package leaves nothing behind.
+                // A resumable job keeps its committed batches, but files stored for the batch in progress
+                // (e.g. on cancel) are not in the checkpoint and would otherwise be orphaned.
+                if (onCheckpoint == null) {
+                    streamingImport.rollback();
+                } else {
+                    streamingImport.discardPending();
+                }
+                throw e;
             }
             
-            // Extract filename from URL
-            String fileName = extractFilenameFromUrl(multiMedia.getUrl());
-            String mediaType = multiMedia.getMedia().toString();
+            // Package-level checks can only run once everything has been read, but
+            // before the last batch is committed
+            String packageError = validatePackage(header, streamingImport);
+            if (packageError != null) {
+                streamingImport.rollback();
+                throw new RuntimeException(packageError);
+            }
+            streamingImport.flush();
             
-            // Load file content
-            byte[] fileContent = fileStorageService.loadFile(mediaType, fileName);
-            
-            // Build serializable file data
-            SerializableFileData.SerializableFileDataBuilder builder = SerializableFileData.builder()
-                .originalId(multiMedia.getId())
-                .fileName(fileName)
-                .contentType(getContentTypeFromMediaType(multiMedia.getMedia()))
-                .fileSize((long) fileContent.length)
-                .uploadDate(multiMedia.getUploadDate())
-                .fileContent(fileContent)
-                .mediaType(mediaType)
-                .description(multiMedia.getDescription())
-                .url(multiMedia.getUrl())
-                .exportedAt(LocalDateTime.now())
-                .packageVersion("1.0")
-                .checksum(calculateFileChecksum(fileContent));
-            
-            // Add metadata if requested
-            if (includeMetadata && multiMedia.getAnimal() != null) {
-                Animal animal = multiMedia.getAnimal();
-                builder.animalId(animal.getAnimalId())
-                    .animalName(animal.getName())
-                    .animalSpecies(animal.getSpecies())
-                    .animalBreed(animal.getBreed());
+            // Create import summary
+            Map<String, Object> importResult = new HashMap<>();
+            importResult.put("packageId", header.getPackageId());
+            importResult.put("packageName", header.getPackageName());
+            importResult.put("totalFilesInPackage", streamingImport.filesSeen);
+            importResult.put("successfulImports", streamingImport.importedFiles.size());
+            importResult.put("failedImports", streamingImport.failedFiles.size());
+            importResult.put("importedFiles", streamingImport.importedFiles);
+            importResult.put("failedFiles", streamingImport.failedFiles);
+            importResult.put("totalBytesImported", streamingImport.totalBytesImported);
+            importResult.put("importedAt", LocalDateTime.now());
+            importResult.put("importedBy", importUser.getFirstName() + " " + importUser.getLastName());
+            
+            log.info("Import completed. Success: {}, Failed: {}", streamingImport.importedFiles.size(), streamingImport.failedFiles.size());
+            return importResult;
+            
+        } catch (Exception e) {
+            log.error("Error importing file package: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to import file package: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Compare the header's file count and package checksum with what was read.
+     * Returns the reason the package is rejected, or null if it is intact.
+     */
+    private String validatePackage(SerializableFilePackage header, StreamingImport streamingImport) {
+        if (streamingImport.filesSeen == 0) {
+            return "Package contains no files";
+        }
+        if (header.getTotalFiles() == null || header.getTotalFiles() != streamingImport.filesSeen) {
+            return "Package file count mismatch";
+        }
+        if (!streamingImport.declaredChecksums.finish().equals(header.getPackageChecksum())) {
+            return "Package integrity check failed";
+        }
+        return null;
+    }
+    
+    private Path spoolToStaging(MultipartFile packageFile) throws IOException {
+        Path staging = Paths.get(stagingDir);
+        Files.createDirectories(staging);
+        Path spooled = Files.createTempFile(staging, "package-", ".pkg2");
+        try {
+            // Disk-backed uploads are moved rather than copied where the container allows it
+            Files.delete(spooled);
+            packageFile.transferTo(spooled);
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        return spooled;
+    }
+    
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete staging file {}: {}", path, e.getMessage());
+        }
+    }
+    
+    /**
+     * Per-import state for {@link #importPackage}: verified files are
+     * moved into media storage immediately and their rows buffered until a
+     * batch is full.
+     */
+    private class StreamingImport {
+        
+        private final ImportPlanner.Plan plan;
+        private final List<String> importedFiles = new ArrayList<>();
+        private final List<String> importedMediaTypes = new ArrayList<>();
+        private final List<String> failedFiles = new ArrayList<>();
+        private final List<SerializableFileData> pendingFiles = new ArrayList<>();
+        private final List<String> pendingNames = new ArrayList<>();
+        private final ChecksumEngine.PackageDigest declaredChecksums;
+        private final PackageProgressListener progress;
+        private final Consumer<ImportCheckpoint> onCheckpoint;
+        private final int skipFiles;
+        private long totalBytesImported;
+        private int filesSeen;
+        
+        StreamingImport(User importUser, ImportCheckpoint resumeFrom, PackageProgressListener progress,
+                        Consumer<ImportCheckpoint> onCheckpoint) {
+            this.plan = importPlanner.begin(importUser);
+            this.declaredChecksums = checksumEngine.newPackageDigest();
+            this.progress = progress;
+            this.onCheckpoint = onCheckpoint;
+            this.skipFiles = resumeFrom != null ? resumeFrom.getFilesProcessed() : 0;
+            if (resumeFrom != null) {
+                importedFiles.addAll(resumeFrom.getImportedFiles());
+                importedMediaTypes.addAll(resumeFrom.getImportedMediaTypes());
+                failedFiles.addAll(resumeFrom.getFailedFiles());
+                totalBytesImported = resumeFrom.getTotalBytesImported();
+            }
+        }
+        
+        void accept(SerializableFileData fileData, Path stagedContent, String actualChecksum) throws IOException {
+            filesSeen++;
+            if (fileData.getChecksum() != null) {
+                declaredChecksums.add(fileData.getChecksum());
+            }
+            
+            // Already committed (or failed) before the import was interrupted
+            if (filesSeen <= skipFiles) {
+                if (stagedContent != null) {
+                    Files.deleteIfExists(stagedContent);
+                }
+                return;
+            }
+            
+            try {
+                if (stagedContent == null) {
+                    throw new RuntimeException("File has no content: " + fileData.getFileName());
+                }
+                if (!actualChecksum.equals(fileData.getChecksum())) {
+                    throw new RuntimeException("File integrity check failed for: " + fileData.getFileName());
+                }
+                MultiMedia.MediaType.valueOf(fileData.getMediaType());
                 
-                if (animal.getUser() != null) {
-                    User owner = animal.getUser();
-                    builder.ownerId(owner.getUserId())
-                        .ownerFirstName(owner.getFirstName())
-                        .ownerLastName(owner.getLastName())
-                        .ownerEmail(owner.getEmail());
+                String newFileName = fileStorageService.storeFromPath(stagedContent, fileData.getMediaType(), fileData.getFileName());
+                fileData.setFileSize(Files.size(fileStorageService.resolvePath(fileData.getMediaType(), newFileName)));
+                pendingFiles.add(fileData);
+                pendingNames.add(newFileName);
+                
+            } catch (Exception e) {
+                if (stagedContent != null) {
+                    Files.deleteIfExists(stagedContent);
                 }
+                log.error("Failed to import file {}: {}", fileData.getFileName(), e.getMessage());
+                failedFiles.add(fileData.getFileName() + ": " + e.getMessage());
             }
             
-            return builder.build();
+            if (pendingFiles.size() >= importBatchSize) {
+                flush();
+            }
+            progress.onProgress(filesSeen, totalBytesImported);
+        }
+        
+        void flush() {
+            if (pendingFiles.isEmpty()) {
+                checkpoint();
+                return;
+            }
+            
+            try {
+                plan.commit(pendingFiles, pendingNames);
+                
+                importedFiles.addAll(pendingNames);
+                pendingFiles.forEach(fileData -> importedMediaTypes.add(fileData.getMediaType()));
+                totalBytesImported += pendingFiles.stream().mapToLong(SerializableFileData::getFileSize).sum();
+                
+            } catch (Exception e) {
+                log.error("Failed to commit batch of {} imported files: {}", pendingFiles.size(), e.getMessage());
+                for (int i = 0; i < pendingFiles.size(); i++) {
+                    fileStorageService.deleteFile(pendingFiles.get(i).getMediaType(), pendingNames.get(i));
+                    failedFiles.add(pendingFiles.get(i).getFileName() + ": " + e.getMessage());
+                }
+            }
+            
+            pendingFiles.clear();
+            pendingNames.clear();
+            checkpoint();
+        }
+        
+        private void checkpoint() {
+            if (onCheckpoint != null && filesSeen > skipFiles) {
+                onCheckpoint.accept(new ImportCheckpoint(filesSeen, new ArrayList<>(importedFiles),
+                    new ArrayList<>(importedMediaTypes), new ArrayList<>(failedFiles), totalBytesImported));
+            }
+        }
+        
+        /**
+         * Delete files stored since the last committed batch
+         */
+        void discardPending() {
+            for (int i = 0; i < pendingFiles.size(); i++) {
+                fileStorageService.deleteFile(pendingFiles.get(i).getMediaType(), pendingNames.get(i));
+            }
+            pendingFiles.clear();
+            pendingNames.clear();
+        }
+        
+        /**
+         * Undo the whole import, including batches committed by earlier runs of
+         * a resumed import, and drop the checkpoint.
+         */
+        void rollback() {
+            discardPending();
+            plan.rollback(importedMediaTypes, importedFiles);
+            for (int i = 0; i < importedFiles.size(); i++) {
+                fileStorageService.deleteFile(importedMediaTypes.get(i), importedFiles.get(i));
+            }
+            log.info("Rolled back import of {} file(s)", importedFiles.size());
+            importedFiles.clear();
+            importedMediaTypes.clear();
+            if (onCheckpoint != null) {
+                onCheckpoint.accept(null);
+            }
+        }
+    }
+    
+    /**
+     * Load MULTIMEDIA rows with their animal and owner in one query, keyed by id
+     */
+    private Map<Long, MultiMedia> loadMultiMedia(List<Long> fileIds) {
+        return multiMediaRepository.findAllWithAnimalAndOwnerByIdIn(new HashSet<>(fileIds)).stream()
+            .collect(Collectors.toMap(MultiMedia::getId, Function.identity()));
+    }
+    
+    /**
+     * Load and hash the content of a single file. Touches no entities, so it is
+     * safe to run outside the request transaction.
+     */
+    private SerializableFileData loadAndSerializeFile(SerializableFileData fileData) {
+        try {
+            // Load file content
+            byte[] fileContent = fileStorageService.loadFile(fileData.getMediaType(), fileData.getFileName());
+            
+            fileData.setFileSize((long) fileContent.length);
+            fileData.setFileContent(fileContent);
+            fileData.setChecksum(calculateFileChecksum(fileContent));
+            checksumCache.put(fileStorageService.resolvePath(fileData.getMediaType(), fileData.getFileName()), fileData.getChecksum());
+            
+            return fileData;
             
         } catch (Exception e) {
-            log.error("Error loading and serializing file {}: {}", fileId, e.getMessage());
+            log.error("Error loading and serializing file {}: {}", fileData.getOriginalId(), e.getMessage());
             return null;
         }
     }
     
     /**
-     * Import a single serialized file
+     * Build file metadata (everything except content, size and checksum)
      */
-    private String importSerializedFile(SerializableFileData fileData, User importUser) throws Exception {
+    private SerializableFileData buildFileMetadata(MultiMedia multiMedia, boolean includeMetadata) {
+        String fileName = extractFilenameFromUrl(multiMedia.getUrl());
+        
+        SerializableFileData.SerializableFileDataBuilder builder = SerializableFileData.builder()
+            .originalId(multiMedia.getId())
+            .fileName(fileName)
+            .contentType(getContentTypeFromMediaType(multiMedia.getMedia()))
+            .uploadDate(multiMedia.getUploadDate())
+            .mediaType(multiMedia.getMedia().toString())
+            .description(multiMedia.getDescription())
+            .url(multiMedia.getUrl())
+            .exportedAt(LocalDateTime.now())
+            .packageVersion("1.0");
+        
+        // Add metadata if requested
+        if (includeMetadata && multiMedia.getAnimal() != null) {
+            Animal animal = multiMedia.getAnimal();
+            builder.animalId(animal.getAnimalId())
+                .animalName(animal.getName())
+                .animalSpecies(animal.getSpecies())
+                .animalBreed(animal.getBreed());
+            
+            if (animal.getUser() != null) {
+                User owner = animal.getUser();
+                builder.ownerId(owner.getUserId())
+                    .ownerFirstName(owner.getFirstName())
+                    .ownerLastName(owner.getLastName())
+                    .ownerEmail(owner.getEmail());
+            }
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * Verify and store a single serialized file, returning its new name
+     */
+    private String importSerializedFile(SerializableFileData fileData) throws Exception {
         // Validate file integrity
         String calculatedChecksum = calculateFileChecksum(fileData.getFileContent());
         if (!calculatedChecksum.equals(fileData.getChecksum())) {
             throw new RuntimeException("File integrity check failed for: " + fileData.getFileName());
         }
+        MultiMedia.MediaType.valueOf(fileData.getMediaType());
         
         // Generate new filename to avoid conflicts
         String newFileName = UUID.randomUUID().toString() + getFileExtension(fileData.getFileName());
@@ -233,54 +775,9 @@ public class CrossPlatformFileExchangeService {
         Path filePath = uploadPath.resolve(newFileName);
         Files.write(filePath, fileData.getFileContent());
         
-        // Find or create animal (simplified - you might want more sophisticated matching)
-        Animal animal = null;
-        if (fileData.getAnimalId() != null && fileData.getAnimalName() != null) {
-            // Try to find existing animal or create a placeholder
-            animal = findOrCreateAnimalForImport(fileData, importUser);
-        }
-        
-        // Create multimedia record
-        MultiMedia multiMedia = new MultiMedia();
-        multiMedia.setMedia(MultiMedia.MediaType.valueOf(fileData.getMediaType()));
-        multiMedia.setUrl(fileStorageService.getPublicUrl(fileData.getMediaType(), newFileName));
-        multiMedia.setDescription(fileData.getDescription() + " (Imported from package)");
-        multiMedia.setUploadDate(fileData.getUploadDate());
-        multiMedia.setAnimal(animal);
-        
-        multiMediaRepository.save(multiMedia);
-        
         return newFileName;
     }
     
-    /**
-     * Find existing animal or create placeholder for import
-     */
-    private Animal findOrCreateAnimalForImport(SerializableFileData fileData, User importUser) {
-        // This is a simplified implementation - you might want more sophisticated matching
-        List<Animal> existingAnimals = animalRepository.findByUserUserId(importUser.getUserId());
-        
-        Optional<Animal> matchingAnimal = existingAnimals.stream()
-            .filter(animal -> animal.getName().equals(fileData.getAnimalName()) &&
-                            animal.getSpecies().equals(fileData.getAnimalSpecies()))
-            .findFirst();
-        
-        if (matchingAnimal.isPresent()) {
-            return matchingAnimal.get();
-        }
-        
-        // Create placeholder animal if no match found
-        Animal newAnimal = new Animal();
-        newAnimal.setName(fileData.getAnimalName() + " (Imported)");
-        newAnimal.setSpecies(fileData.getAnimalSpecies());
-        newAnimal.setBreed(fileData.getAnimalBreed());
-        newAnimal.setAge(0); // Default age
-        newAnimal.setGender(Animal.Gender.male); // Default gender
-        newAnimal.setUser(importUser);
-        
-        return animalRepository.save(newAnimal);
-    }
-    
     /**
      * Validate package integrity
      */
@@ -304,37 +801,18 @@ public class CrossPlatformFileExchangeService {
      * Calculate checksum for file content
      */
     private String calculateFileChecksum(byte[] content) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(content);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Error calculating checksum", e);
-        }
+        return checksumEngine.sha256(content);
     }
     
     /**
      * Calculate checksum for entire package
      */
     private String calculatePackageChecksum(List<SerializableFileData> files) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            for (SerializableFileData file : files) {
-                md.update(file.getChecksum().getBytes());
-            }
-            byte[] digest = md.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Error calculating package checksum", e);
+        ChecksumEngine.PackageDigest digest = checksumEngine.newPackageDigest();
+        for (SerializableFileData file : files) {
+            digest.add(file.getChecksum());
         }
+        return digest.finish();
     }
     
     /**
@@ -357,11 +835,7 @@ public class CrossPlatformFileExchangeService {
              GZIPInputStream gzipIn = new GZIPInputStream(bais);
              ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = gzipIn.read(buffer)) != -1) {
-                baos.write(buffer, 0, len);
-            }
+            gzipIn.transferTo(baos);
             return baos.toByteArray();
         }
     }
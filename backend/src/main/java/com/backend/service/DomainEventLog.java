@@ -0,0 +1,363 @@
+package com.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log of audit-worthy domain events (listings created, messages
+ * sent, sessions opened...). Request threads only claim a slot in a bounded
+ * lock-free ring buffer and fill in a few fields; one writer thread drains
+ * the buffer into rolling NDJSON files. When the buffer is full the event is
+ * dropped and counted rather than making the request wait.
+ */
+@Component
+@Slf4j
+public class DomainEventLog {
+
+    public enum Type {
+        USER_SIGNED_UP, USER_DELETED,
+        ANIMAL_CREATED, ANIMAL_DELETED,
+        MESSAGE_SENT, MESSAGES_READ,
+        SESSION_OPENED, SESSION_CLOSED,
+        SUBSCRIPTIONS_UPDATED
+    }
+
+    private static final String FILE_PREFIX = "events-";
+    private static final String FILE_SUFFIX = ".ndjson";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Value("${events.log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.log.dir:logs/events}")
+    private String directory;
+
+    @Value("${events.log.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${events.log.max-file-size:64MB}")
+    private DataSize maxFileSize;
+
+    @Value("${events.log.max-files:20}")
+    private int maxFiles;
+
+    private Slot[] slots;
+    private AtomicLongArray sequences;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private long lastFailureLoggedMillis;
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Writer out;
+    private long currentEpochDay;
+    private long maxFileBytes;
+    private long currentFileBytes;
+
+    /** Preallocated and reused; fields are published by the slot's sequence. */
+    private static final class Slot {
+        long timestampMillis;
+        Type type;
+        long actorId;
+        long subjectId;
+        String detail;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int capacity = Integer.highestOneBit(Math.max(1024, bufferSize - 1)) << 1;
+        slots = new Slot[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "DomainEventLog-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Record an event. Never blocks; returns false if the event was dropped.
+     * Use 0 for an actor or subject that does not apply.
+     */
+    public boolean record(Type type, long actorId, long subjectId) {
+        return record(type, actorId, subjectId, null);
+    }
+
+    /**
+     * Record an event once the surrounding transaction commits, so a rolled-back
+     * write never shows up in the log. Records immediately outside a transaction.
+     */
+    public void recordAfterCommit(Type type, long actorId, long subjectId) {
+        recordAfterCommit(type, actorId, subjectId, null);
+    }
+
+    public void recordAfterCommit(Type type, long actorId, long subjectId, String detail) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(type, actorId, subjectId, detail);
+                }
+            });
+        } else {
+            record(type, actorId, subjectId, detail);
+        }
+    }
+
+    public boolean record(Type type, long actorId, long subjectId, String detail) {
+        if (slots == null) {
+            return false;
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            // Another producer claimed this position; retry with the new tail
+        }
+
+        Slot slot = slots[index];
+        slot.timestampMillis = System.currentTimeMillis();
+        slot.type = type;
+        slot.actorId = actorId;
+        slot.subjectId = subjectId;
+        slot.detail = detail;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("writeFailures", writeFailures.get());
+        stats.put("pending", slots == null ? 0 : Math.max(0, tail.get() - head));
+        stats.put("capacity", slots == null ? 0 : slots.length);
+        return stats;
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            boolean stopping = !running;
+            int drained = 0;
+            try {
+                drained = drain(line);
+                if (drained == 0 && out != null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                writeFailures.incrementAndGet();
+                long now = System.currentTimeMillis();
+                if (now - lastFailureLoggedMillis > TimeUnit.MINUTES.toMillis(1)) {
+                    lastFailureLoggedMillis = now;
+                    log.warn("Could not write domain events to {}: {}", directory, e.getMessage());
+                }
+                closeQuietly();
+            }
+            if (stopping && drained == 0) {
+                break;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        closeQuietly();
+    }
+
+    private int drain(StringBuilder line) throws IOException {
+        int drained = 0;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return drained;
+            }
+            Slot slot = slots[index];
+            long epochDay = slot.timestampMillis / MILLIS_PER_DAY;
+            line.setLength(0);
+            appendJson(line, slot);
+            slot.detail = null;
+            sequences.lazySet(index, head + slots.length);
+            head++;
+            drained++;
+
+            write(line, epochDay);
+            written.incrementAndGet();
+        }
+    }
+
+    private void appendJson(StringBuilder line, Slot slot) {
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(slot.timestampMillis))
+            .append("\",\"type\":\"").append(slot.type)
+            .append('"');
+        if (slot.actorId != 0) {
+            line.append(",\"actor\":").append(slot.actorId);
+        }
+        if (slot.subjectId != 0) {
+            line.append(",\"subject\":").append(slot.subjectId);
+        }
+        if (slot.detail != null) {
+            line.append(",\"detail\":\"");
+            escape(line, slot.detail);
+            line.append('"');
+        }
+        line.append("}\n");
+    }
+
+    private static void escape(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private void write(CharSequence line, long epochDay) throws IOException {
+        if (out == null || epochDay != currentEpochDay || currentFileBytes >= maxFileBytes) {
+            roll(LocalDate.ofEpochDay(epochDay));
+        }
+        out.append(line);
+        currentFileBytes += line.length();
+    }
+
+    /**
+     * Start a new file: events-{yyyyMMdd}-{n}.ndjson, then delete the oldest
+     * files beyond {@code events.log.max-files}.
+     */
+    private void roll(LocalDate today) throws IOException {
+        closeQuietly();
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+
+        String dayPrefix = FILE_PREFIX + today.format(DAY) + "-";
+        int sequence = 0;
+        Path file;
+        do {
+            file = dir.resolve(dayPrefix + sequence++ + FILE_SUFFIX);
+        } while (Files.exists(file) && Files.size(file) >= maxFileSize.toBytes());
+
+        out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8), 64 * 1024);
+        currentEpochDay = today.toEpochDay();
+        maxFileBytes = maxFileSize.toBytes();
+        currentFileBytes = Files.size(file);
+
+        pruneOldFiles(dir);
+    }
+
+    private void pruneOldFiles(Path dir) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("Could not list event log directory {}: {}", dir, e.getMessage());
+            return;
+        }
+        if (files.size() <= maxFiles) {
+            return;
+        }
+        files.sort((a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (IOException e) {
+                return a.compareTo(b);
+            }
+        });
+        for (Path old : files.subList(0, files.size() - maxFiles)) {
+            try {
+                Files.deleteIfExists(old);
+            } catch (IOException e) {
+                log.warn("Could not delete old event log {}: {}", old, e.getMessage());
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Could not close event log: {}", e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package com.backend.service;
+
+import com.backend.dto.FilePackageRequest;
+import com.backend.model.ExchangeJob;
+import com.backend.model.ExportPlan;
+import com.backend.model.ImportCheckpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs package exports and imports as background jobs on a dedicated bounded
+ * executor. Progress can be polled or streamed over SSE; export artifacts are
+ * spooled to disk for download. Import jobs persist a checkpoint after every
+ * committed batch, so an import interrupted by a failure or a restart can be
+ * resumed from the last committed file.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeJobService {
+
+    private static final String RECORD_SUFFIX = ".json";
+    private static final long PUBLISH_INTERVAL_MILLIS = 250;
+    private static final String CANCELLED_BY_USER = "Cancelled by user; files imported so far were kept, resume to finish";
+
+    private final CrossPlatformFileExchangeService exchangeService;
+    private final ObjectMapper objectMapper;
+
+    @Qualifier("exchangeJobThreadPoolTaskExecutor")
+    private final Executor jobExecutor;
+
+    private final Map<String, ExchangeJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastPublished = new ConcurrentHashMap<>();
+
+    @Value("${file.exchange.jobs.dir:data/exchange-jobs}")
+    private String jobsDir;
+
+    @Value("${file.exchange.jobs.ttl-minutes:60}")
+    private long jobTtlMinutes;
+
+    /**
+     * Re-register imports that were running when the application stopped, so
+     * they can be resumed.
+     */
+    @PostConstruct
+    public void recoverInterruptedImports() {
+        Path jobDir = Paths.get(jobsDir);
+        if (!Files.isDirectory(jobDir)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> records = Files.newDirectoryStream(jobDir, "*" + RECORD_SUFFIX)) {
+            for (Path record : records) {
+                try {
+                    JobRecord saved = objectMapper.readValue(record.toFile(), JobRecord.class);
+                    Path packageFile = jobDir.resolve(saved.jobId() + ".upload");
+                    if (!Files.exists(packageFile)) {
+                        Files.deleteIfExists(record);
+                        continue;
+                    }
+
+                    ExchangeJob job = new ExchangeJob(saved.jobId(), ExchangeJob.Type.IMPORT, saved.userId(),
+                        packageFile, saved.fileName(), saved.compressed(), saved.createdAt());
+                    job.setCheckpoint(saved.checkpoint());
+                    if (saved.checkpoint() != null) {
+                        job.setProgress(saved.checkpoint().getFilesProcessed(), saved.checkpoint().getTotalBytesImported());
+                    }
+                    job.transition(ExchangeJob.State.QUEUED, ExchangeJob.State.INTERRUPTED);
+                    job.setError("Interrupted by application restart");
+                    jobs.put(job.getJobId(), job);
+                } catch (IOException e) {
+                    log.warn("Could not read job record {}: {}", record, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error scanning job directory: {}", e.getMessage());
+        }
+
+        if (!jobs.isEmpty()) {
+            log.info("Recovered {} interrupted import job(s)", jobs.size());
+        }
+    }
+
+    public ExchangeJob submitExport(FilePackageRequest request, Long userId) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        String fileName = exchangeService.exportFileName(request);
+        Path artifact = jobDirectory().resolve(jobId + ".export");
+
+        ExchangeJob job = new ExchangeJob(jobId, ExchangeJob.Type.EXPORT, userId, artifact, fileName,
+            request.isCompressPackage(), Instant.now());
+        job.setContentType("v2".equals(request.getFormat()) || request.isCompressPackage()
+            ? "application/octet-stream" : "application/json");
+
+        submit(job, () -> runExport(job, request));
+        log.info("Queued export job {} for user {} ({} files)", jobId, userId, request.getFileIds().size());
+        return job;
+    }
+
+    public ExchangeJob submitImport(MultipartFile packageFile, boolean isCompressed, Long userId) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path upload = jobDirectory().resolve(jobId + ".upload");
+
+        // The multipart file is gone once the request ends, so keep our own copy
+        packageFile.transferTo(upload);
+
+        ExchangeJob job = new ExchangeJob(jobId, ExchangeJob.Type.IMPORT, userId, upload,
+            packageFile.getOriginalFilename(), isCompressed, Instant.now());
+        saveRecord(job);
+
+        submit(job, () -> runImport(job));
+        log.info("Queued import job {} for user {} ({} bytes)", jobId, userId, Files.size(upload));
+        return job;
+    }
+
+    /**
+     * Restart a failed or interrupted import from its last checkpoint.
+     */
+    public ExchangeJob resumeImport(String jobId, Long userId) {
+        ExchangeJob job = getJob(jobId, userId);
+        if (job.getType() != ExchangeJob.Type.IMPORT || !Files.exists(job.getWorkFile())) {
+            throw new IllegalStateException("Job cannot be resumed: " + jobId);
+        }
+        if (!job.transition(ExchangeJob.State.INTERRUPTED, ExchangeJob.State.QUEUED)
+                && !job.transition(ExchangeJob.State.FAILED, ExchangeJob.State.QUEUED)) {
+            throw new IllegalStateException("Only failed or interrupted imports can be resumed, job is " + job.getState());
+        }
+        job.setError(null);
+        job.clearCancelRequest();
+
+        try {
+            jobExecutor.execute(() -> runImport(job));
+        } catch (RejectedExecutionException e) {
+            job.transition(ExchangeJob.State.QUEUED, ExchangeJob.State.INTERRUPTED);
+            throw new IllegalStateException("Too many jobs are running, try again later");
+        }
+        log.info("Resuming import job {} from file {}", jobId,
+            job.getCheckpoint() != null ? job.getCheckpoint().getFilesProcessed() : 0);
+        return job;
+    }
+
+    public ExchangeJob getJob(String jobId, Long userId) {
+        ExchangeJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new RuntimeException("Job not found: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Cancel a running job, or discard a finished one together with its files.
+     * An import that has already committed batches is not undone: it stops as
+     * INTERRUPTED with its checkpoint, so it can be resumed later. Discarding
+     * it after that keeps the files imported so far.
+     */
+    public void cancelJob(String jobId, Long userId) {
+        ExchangeJob job = getJob(jobId, userId);
+        if (job.getCheckpoint() != null && job.transition(ExchangeJob.State.QUEUED, ExchangeJob.State.INTERRUPTED)) {
+            // A resumed import waiting for a thread
+            job.setError(CANCELLED_BY_USER);
+            publish(job, true);
+        } else if (job.transition(ExchangeJob.State.QUEUED, ExchangeJob.State.CANCELLED)) {
+            discard(job);
+        } else if (job.getState() == ExchangeJob.State.RUNNING) {
+            // Picked up by the progress listener at the next file
+            job.requestCancel();
+        } else {
+            discard(job);
+        }
+    }
+
+    public SseEmitter subscribe(String jobId, Long userId) {
+        ExchangeJob job = getJob(jobId, userId);
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(jobTtlMinutes));
+
+        List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        jobEmitters.add(emitter);
+        emitter.onCompletion(() -> jobEmitters.remove(emitter));
+        emitter.onTimeout(() -> jobEmitters.remove(emitter));
+        emitter.onError(e -> jobEmitters.remove(emitter));
+
+        publish(job, true);
+        return emitter;
+    }
+
+    /**
+     * Status of a job as sent to clients. {@code resumable} is also true for an
+     * import cancelled after committing batches; its {@code error} says so.
+     */
+    public Map<String, Object> describe(ExchangeJob job) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("success", true);
+        status.put("jobId", job.getJobId());
+        status.put("type", job.getType());
+        status.put("state", job.getState());
+        status.put("fileName", job.getFileName());
+        status.put("filesDone", job.getFilesDone());
+        status.put("bytesDone", job.getBytesDone());
+        status.put("filesTotal", job.getFilesTotal() >= 0 ? job.getFilesTotal() : null);
+        status.put("bytesTotal", job.getBytesTotal() >= 0 ? job.getBytesTotal() : null);
+        status.put("createdAt", job.getCreatedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        status.put("error", job.getError());
+        status.put("result", job.getResult());
+        status.put("downloadReady", job.getType() == ExchangeJob.Type.EXPORT && job.getState() == ExchangeJob.State.COMPLETED);
+        status.put("resumable", isResumable(job));
+        return status;
+    }
+
+    /**
+     * Drop finished jobs older than the TTL with their files, plus files left
+     * in the job directory by jobs that no longer exist.
+     */
+    @Scheduled(fixedDelayString = "${file.exchange.jobs.sweep-interval-ms:300000}")
+    public void expireFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(jobTtlMinutes);
+        int expired = 0;
+
+        Iterator<ExchangeJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ExchangeJob job = iterator.next();
+            if (job.getState().isFinished() && job.getFinishedAt() != null
+                    && job.getFinishedAt().toEpochMilli() < cutoff) {
+                iterator.remove();
+                discard(job);
+                expired++;
+            }
+        }
+
+        Path jobDir = Paths.get(jobsDir);
+        if (Files.isDirectory(jobDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(jobDir)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    String jobId = name.contains(".") ? name.substring(0, name.indexOf('.')) : name;
+                    if (!jobs.containsKey(jobId) && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                        deleteQuietly(file);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Error scanning job directory: {}", e.getMessage());
+            }
+        }
+
+        if (expired > 0) {
+            log.info("Expired {} finished job(s)", expired);
+        }
+    }
+
+    private void submit(ExchangeJob job, Runnable task) {
+        jobs.put(job.getJobId(), job);
+        try {
+            jobExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            discard(job);
+            throw new IllegalStateException("Too many jobs are running, try again later");
+        }
+    }
+
+    private void runExport(ExchangeJob job, FilePackageRequest request) {
+        if (!job.transition(ExchangeJob.State.QUEUED, ExchangeJob.State.RUNNING)) {
+            return;
+        }
+        publish(job, true);
+
+        try {
+            ExportPlan plan = exchangeService.planExport(request, job.getUserId());
+            job.setTotals(plan.getEntries().size(), plan.getTotalSizeBytes());
+
+            try (OutputStream out = Files.newOutputStream(job.getWorkFile())) {
+                exchangeService.writePackage(plan, request, out, progressListener(job));
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("packageId", plan.getHeader().getPackageId());
+            result.put("totalFiles", plan.getEntries().size());
+            result.put("artifactSizeBytes", Files.size(job.getWorkFile()));
+            job.setResult(result);
+            job.transition(ExchangeJob.State.RUNNING, ExchangeJob.State.COMPLETED);
+            log.info("Export job {} completed", job.getJobId());
+
+        } catch (Exception e) {
+            deleteQuietly(job.getWorkFile());
+            finishWithError(job, e);
+        }
+        publish(job, true);
+    }
+
+    private void runImport(ExchangeJob job) {
+        if (!job.transition(ExchangeJob.State.QUEUED, ExchangeJob.State.RUNNING)) {
+            return;
+        }
+        publish(job, true);
+
+        try {
+            Map<String, Object> result = exchangeService.importPackageFile(job.getWorkFile(), job.isCompressed(),
+                job.getUserId(), job.getCheckpoint(), progressListener(job), checkpoint -> {
+                    job.setCheckpoint(checkpoint);
+                    saveRecord(job);
+                });
+
+            job.setResult(result);
+            job.transition(ExchangeJob.State.RUNNING, ExchangeJob.State.COMPLETED);
+            deleteQuietly(job.getWorkFile());
+            deleteQuietly(recordPath(job));
+            log.info("Import job {} completed", job.getJobId());
+
+        } catch (Exception e) {
+            finishWithError(job, e);
+            if (job.getState() == ExchangeJob.State.CANCELLED) {
+                discard(job);
+            }
+        }
+        publish(job, true);
+    }
+
+    private PackageProgressListener progressListener(ExchangeJob job) {
+        return (filesDone, bytesDone) -> {
+            if (job.isCancelRequested()) {
+                throw new IllegalStateException("Job cancelled");
+            }
+            job.setProgress(filesDone, bytesDone);
+            publish(job, false);
+        };
+    }
+
+    private void finishWithError(ExchangeJob job, Exception e) {
+        if (job.isCancelRequested() && job.getCheckpoint() != null) {
+            // Committed batches stay; keep the upload and checkpoint so the import can be resumed
+            job.setError(CANCELLED_BY_USER);
+            job.transition(ExchangeJob.State.RUNNING, ExchangeJob.State.INTERRUPTED);
+            log.info("Import job {} cancelled after {} file(s), left resumable", job.getJobId(),
+                job.getCheckpoint().getFilesProcessed());
+        } else if (job.isCancelRequested()) {
+            job.transition(ExchangeJob.State.RUNNING, ExchangeJob.State.CANCELLED);
+            log.info("Job {} cancelled", job.getJobId());
+        } else {
+            job.setError(e.getMessage());
+            job.transition(ExchangeJob.State.RUNNING, ExchangeJob.State.FAILED);
+            log.error("Job {} failed: {}", job.getJobId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Push the job status to SSE subscribers, at most every few hundred
+     * milliseconds unless forced (state changes always go out).
+     */
+    private void publish(ExchangeJob job, boolean force) {
+        List<SseEmitter> jobEmitters = emitters.get(job.getJobId());
+        if (jobEmitters == null || jobEmitters.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long last = lastPublished.get(job.getJobId());
+        if (!force && last != null && now - last < PUBLISH_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPublished.put(job.getJobId(), now);
+
+        Map<String, Object> status = describe(job);
+        for (SseEmitter emitter : jobEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(status));
+                if (job.getState().isFinished()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                jobEmitters.remove(emitter);
+            }
+        }
+        if (job.getState().isFinished()) {
+            emitters.remove(job.getJobId());
+            lastPublished.remove(job.getJobId());
+        }
+    }
+
+    /**
+     * Failed imports and interrupted ones (stopped by a restart, or cancelled
+     * after their first committed batch) can continue from their checkpoint.
+     */
+    private boolean isResumable(ExchangeJob job) {
+        return job.getType() == ExchangeJob.Type.IMPORT
+            && (job.getState() == ExchangeJob.State.FAILED || job.getState() == ExchangeJob.State.INTERRUPTED)
+            && Files.exists(job.getWorkFile());
+    }
+
+    private void discard(ExchangeJob job) {
+        jobs.remove(job.getJobId());
+        deleteQuietly(job.getWorkFile());
+        deleteQuietly(recordPath(job));
+    }
+
+    private Path jobDirectory() throws IOException {
+        Path jobDir = Paths.get(jobsDir);
+        Files.createDirectories(jobDir);
+        return jobDir;
+    }
+
+    private Path recordPath(ExchangeJob job) {
+        return Paths.get(jobsDir, job.getJobId() + RECORD_SUFFIX);
+    }
+
+    /**
+     * Persist what is needed to resume an import after a restart. Written to a
+     * temporary file and moved into place so a crash never leaves half a record.
+     */
+    private void saveRecord(ExchangeJob job) {
+        JobRecord record = new JobRecord(job.getJobId(), job.getUserId(), job.getFileName(),
+            job.isCompressed(), job.getCreatedAt(), job.getCheckpoint());
+        Path target = recordPath(job);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), record);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save checkpoint for job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete job file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record JobRecord(String jobId, Long userId, String fileName, boolean compressed,
+                             Instant createdAt, ImportCheckpoint checkpoint) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SHA-256 checksums of stored media files, keyed by path and validated against
+ * the file's size and modification time. Entries are recorded whenever a file
+ * is hashed anyway (exports), so previews can report checksums without reading
+ * file bodies. Bounded with LRU eviction.
+ */
+@Component
+@Slf4j
+public class FileChecksumCache {
+
+    private record Entry(long size, long modifiedMillis, String checksum) {
+    }
+
+    private final Map<Path, Entry> entries;
+
+    public FileChecksumCache(@Value("${file.exchange.checksum-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached checksum for the file, or null if unknown or the file changed since it was hashed.
+     */
+    public String get(Path file, BasicFileAttributes attributes) {
+        Path key = file.toAbsolutePath().normalize();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null || entry.size() != attributes.size()
+                || entry.modifiedMillis() != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        return entry.checksum();
+    }
+
+    /**
+     * Record a checksum just computed from the file's content.
+     */
+    public void put(Path file, String checksum) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            Entry entry = new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), checksum);
+            synchronized (entries) {
+                entries.put(file.toAbsolutePath().normalize(), entry);
+            }
+        } catch (IOException e) {
+            log.debug("Not caching checksum for {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.backend.service;
+
+import com.backend.model.SerializableFileData;
+import com.backend.model.SerializableFilePackage;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental reader for v1 JSON packages. Package and file metadata are
+ * parsed into small trees, while each {@code fileContent} value is
+ * Base64-decoded straight into a staging file and hashed on the way, so only
+ * one file's metadata is held in memory at a time.
+ */
+@Component
+@RequiredArgsConstructor
+public class FilePackageStreamReader {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ChecksumEngine checksumEngine;
+
+    @FunctionalInterface
+    public interface FileVisitor {
+        /**
+         * Called once per file, in package order. {@code stagedContent} is null if the
+         * entry carried no content; otherwise the visitor owns (moves or deletes) the file.
+         */
+        void onFile(SerializableFileData metadata, Path stagedContent, String actualChecksum) throws IOException;
+    }
+
+    /**
+     * Read only the metadata of a package. File content is skipped without being
+     * decoded; the returned package has {@code files} set, with no content.
+     */
+    public SerializableFilePackage readMetadata(InputStream in) throws IOException {
+        List<SerializableFileData> files = new ArrayList<>();
+        SerializableFilePackage header = read(in, null, (metadata, stagedContent, actualChecksum) -> files.add(metadata));
+        header.setFiles(files);
+        return header;
+    }
+    
+    /**
+     * Read a package, handing each file to the visitor as soon as it is complete.
+     * Returns the package header (everything except {@code files}). With a null
+     * {@code stagingDir} file content is skipped and the visitor gets no staged file.
+     */
+    public SerializableFilePackage read(InputStream in, Path stagingDir, FileVisitor visitor) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Package must be a JSON object");
+            }
+
+            ObjectNode header = objectMapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("files".equals(name) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readFile(parser, stagingDir, visitor);
+                    }
+                } else {
+                    header.set(name, readValue(parser));
+                }
+            }
+
+            return objectMapper.treeToValue(header, SerializableFilePackage.class);
+        }
+    }
+
+    private void readFile(JsonParser parser, Path stagingDir, FileVisitor visitor) throws IOException {
+        ObjectNode fields = objectMapper.createObjectNode();
+        Path staged = null;
+        String actualChecksum = null;
+        SerializableFileData metadata;
+
+        try {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("fileContent".equals(name) && value == JsonToken.VALUE_STRING && stagingDir == null) {
+                    // Not accessing the value lets the parser skip it without decoding
+                    continue;
+                } else if ("fileContent".equals(name) && value == JsonToken.VALUE_STRING) {
+                    staged = Files.createTempFile(stagingDir, "import-", ".tmp");
+                    MessageDigest digest = checksumEngine.newSha256();
+                    try (OutputStream out = new DigestOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(staged), WRITE_BUFFER_SIZE), digest)) {
+                        parser.readBinaryValue(out);
+                    }
+                    actualChecksum = checksumEngine.toHex(digest.digest());
+                } else {
+                    fields.set(name, readValue(parser));
+                }
+            }
+            metadata = objectMapper.treeToValue(fields, SerializableFileData.class);
+        } catch (IOException e) {
+            if (staged != null) {
+                Files.deleteIfExists(staged);
+            }
+            throw e;
+        }
+
+        visitor.onFile(metadata, staged, actualChecksum);
+    }
+
+    private JsonNode readValue(JsonParser parser) throws IOException {
+        JsonNode node = objectMapper.readTree(parser);
+        return node != null ? node : NullNode.getInstance();
+    }
+
+}
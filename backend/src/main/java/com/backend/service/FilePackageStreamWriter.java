@@ -0,0 +1,146 @@
+package com.backend.service;
+
+import com.backend.model.ExportPlan;
+import com.backend.model.SerializableFileData;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Writes an {@link ExportPlan} as a v1 JSON package directly to an output
+ * stream. Output is byte-compatible with serializing a fully loaded
+ * {@link com.backend.model.SerializableFilePackage}, but each file body is
+ * Base64-encoded straight from disk and hashed on the fly, so memory use does
+ * not depend on package size. Fields whose values are only known after the
+ * files have been written (checksums, totals) are emitted after them. Bodies
+ * can also be read and encoded ahead on the file I/O pool through a
+ * {@link FilePrefetcher} using {@link #prepareFile}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FilePackageStreamWriter {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ChecksumEngine checksumEngine;
+    private final FileChecksumCache checksumCache;
+
+    /**
+     * A file body read and Base64-encoded ahead of the writer
+     */
+    public record PreparedFile(byte[] base64, String checksum) {
+    }
+
+    public void writeJson(ExportPlan plan, OutputStream out) throws IOException {
+        writeJson(plan, out, PackageProgressListener.NONE, null);
+    }
+    
+    /**
+     * Write the package. With {@code prefetcher} (may be null) bodies come from
+     * it in plan order; otherwise each file is streamed from disk.
+     */
+    public void writeJson(ExportPlan plan, OutputStream out, PackageProgressListener progress,
+                          FilePrefetcher<PreparedFile> prefetcher) throws IOException {
+        ChecksumEngine.PackageDigest packageDigest = checksumEngine.newPackageDigest();
+        long totalSize = 0;
+        int totalFiles = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // The caller owns the stream (it may be wrapped in GZIP or be the servlet response)
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            ObjectNode header = objectMapper.valueToTree(plan.getHeader());
+            header.remove("files");
+            header.remove("totalFiles");
+            header.remove("totalSizeBytes");
+            header.remove("packageChecksum");
+
+            generator.writeStartObject();
+            writeFields(generator, header);
+
+            generator.writeArrayFieldStart("files");
+            for (ExportPlan.Entry entry : plan.getEntries()) {
+                String checksum = writeFile(generator, entry, prefetcher != null ? prefetcher.next() : null);
+                packageDigest.add(checksum);
+                totalSize += entry.getMetadata().getFileSize();
+                totalFiles++;
+                progress.onProgress(totalFiles, totalSize);
+            }
+            generator.writeEndArray();
+
+            generator.writeNumberField("totalFiles", totalFiles);
+            generator.writeNumberField("totalSizeBytes", totalSize);
+            generator.writeStringField("packageChecksum", packageDigest.finish());
+            generator.writeEndObject();
+        }
+
+        log.info("Streamed package {} with {} files ({} bytes)", plan.getHeader().getPackageId(), totalFiles, totalSize);
+    }
+
+    /**
+     * Read a file and Base64-encode it, as Jackson would. Safe to run on any thread.
+     */
+    public PreparedFile prepareFile(ExportPlan.Entry entry) throws IOException {
+        byte[] content = Files.readAllBytes(entry.getSource());
+        return new PreparedFile(Base64.getEncoder().encode(content), checksumEngine.sha256(content));
+    }
+
+    private String writeFile(JsonGenerator generator, ExportPlan.Entry entry, PreparedFile prepared) throws IOException {
+        SerializableFileData metadata = entry.getMetadata();
+
+        ObjectNode fields = objectMapper.valueToTree(metadata);
+        fields.remove("fileContent");
+        fields.remove("checksum");
+
+        generator.writeStartObject();
+        writeFields(generator, fields);
+
+        generator.writeFieldName("fileContent");
+        String checksum;
+        if (prepared != null) {
+            // Base64 needs no escaping, so the encoded bytes go out as they are
+            generator.writeRawUTF8String(prepared.base64(), 0, prepared.base64().length);
+            checksum = prepared.checksum();
+        } else {
+            MessageDigest fileDigest = checksumEngine.newSha256();
+            try (InputStream in = new DigestInputStream(
+                    new BufferedInputStream(Files.newInputStream(entry.getSource()), READ_BUFFER_SIZE), fileDigest)) {
+                generator.writeBinary(in, Math.toIntExact(metadata.getFileSize()));
+            }
+            checksum = checksumEngine.toHex(fileDigest.digest());
+        }
+
+        checksumCache.put(entry.getSource(), checksum);
+        generator.writeStringField("checksum", checksum);
+        generator.writeEndObject();
+
+        // Keep downstream (e.g. the servlet response) moving between files
+        generator.flush();
+        return checksum;
+    }
+
+    private void writeFields(JsonGenerator generator, ObjectNode node) throws IOException {
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            generator.writeFieldName(field.getKey());
+            objectMapper.writeTree(generator, field.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.backend.service;
+
+import com.backend.model.ExportPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads (and encodes) the files of an export ahead of the package writer on
+ * the file I/O pool. Results are handed out strictly in plan order, and at
+ * most {@code maxFiles} files or {@code maxBytes} bytes are in flight at a
+ * time. A file larger than the byte budget is not prefetched: {@link #next()}
+ * returns null for it and the writer streams it from disk itself.
+ */
+public class FilePrefetcher<T> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(ExportPlan.Entry entry) throws IOException;
+    }
+
+    private record Slot<T>(CompletableFuture<T> future, long size) {
+    }
+
+    private final List<ExportPlan.Entry> entries;
+    private final Executor executor;
+    private final Loader<T> loader;
+    private final int maxFiles;
+    private final long maxBytes;
+    private final ArrayDeque<Slot<T>> window = new ArrayDeque<>();
+    private int submitted;
+    private long bytesInFlight;
+
+    public FilePrefetcher(List<ExportPlan.Entry> entries, Executor executor, Loader<T> loader,
+                          int maxFiles, long maxBytes) {
+        this.entries = entries;
+        this.executor = executor;
+        this.loader = loader;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.maxBytes = maxBytes;
+        fill();
+    }
+
+    /**
+     * Result for the next entry in plan order, waiting for it if needed; null
+     * if that entry is too large to prefetch.
+     */
+    public T next() throws IOException {
+        Slot<T> slot = window.poll();
+        if (slot == null) {
+            throw new IllegalStateException("No more entries to prefetch");
+        }
+        if (slot.future() == null) {
+            fill();
+            return null;
+        }
+
+        bytesInFlight -= slot.size();
+        fill();
+        try {
+            return slot.future().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private void fill() {
+        while (submitted < entries.size() && window.size() < maxFiles) {
+            ExportPlan.Entry entry = entries.get(submitted);
+            long size = entry.getMetadata().getFileSize() != null ? entry.getMetadata().getFileSize() : 0;
+            if (size > maxBytes) {
+                window.add(new Slot<>(null, 0));
+            } else if (bytesInFlight + size > maxBytes) {
+                // Wait until the writer has taken enough of the window
+                return;
+            } else {
+                window.add(new Slot<>(CompletableFuture.supplyAsync(() -> load(entry), executor), size));
+                bytesInFlight += size;
+            }
+            submitted++;
+        }
+    }
+
+    private T load(ExportPlan.Entry entry) {
+        try {
+            return loader.load(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drop results the writer did not take, e.g. after a failed export
+     */
+    @Override
+    public void close() {
+        window.forEach(slot -> {
+            if (slot.future() != null) {
+                slot.future().cancel(false);
+            }
+        });
+        window.clear();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -31,13 +32,7 @@ public class FileStorageService {
         }
         
         // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
+        String uniqueFilename = UUID.randomUUID().toString() + getFileExtension(file.getOriginalFilename());
         
         Path filePath = uploadPath.resolve(uniqueFilename);
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
@@ -47,6 +42,34 @@ public class FileStorageService {
         return uniqueFilename;
     }
     
+    /**
+     * Move an already assembled file (e.g. a finished chunked upload) into
+     * media storage under a unique name, without copying its contents.
+     */
+    public String storeFromPath(Path source, String mediaType, String originalFilename) throws IOException {
+        Path uploadPath = Paths.get(uploadDir, mediaType);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        
+        String uniqueFilename = UUID.randomUUID().toString() + getFileExtension(originalFilename);
+        Path filePath = uploadPath.resolve(uniqueFilename);
+        
+        try {
+            Files.move(source, filePath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        
+        log.info("File stored successfully: {}", filePath);
+        
+        return uniqueFilename;
+    }
+    
+    public Path resolvePath(String mediaType, String filename) {
+        return Paths.get(uploadDir, mediaType, filename);
+    }
+    
     public byte[] loadFile(String mediaType, String filename) throws IOException {
         Path filePath = Paths.get(uploadDir, mediaType, filename);
         
@@ -100,4 +123,11 @@ public class FileStorageService {
     public String getPublicUrl(String mediaType, String filename) {
         return "/server/" + mediaType + "/" + filename;
     }
+    
+    public String getFileExtension(String filename) {
+        if (filename != null && filename.contains(".")) {
+            return filename.substring(filename.lastIndexOf("."));
+        }
+        return "";
+    }
 } 
\ No newline at end of file
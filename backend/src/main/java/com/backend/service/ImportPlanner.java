@@ -0,0 +1,232 @@
+package com.backend.service;
+
+import com.backend.model.Animal;
+import com.backend.model.SerializableFileData;
+import com.backend.model.User;
+import com.backend.repository.AnimalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database side of a package import. The importer's animals are loaded once
+ * per import into a lookup map; each batch then creates the placeholder
+ * animals it is missing and inserts its MULTIMEDIA rows, each with a single
+ * JDBC batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImportPlanner {
+
+    private static final String IMPORTED_SUFFIX = " (Imported)";
+
+    private static final String INSERT_PLACEHOLDER =
+        "INSERT INTO ANIMAL (NAME, BREED, SPECIES, AGE, VIEWS, GENDER, CREATEDAT, USERID) "
+            + "VALUES (?, ?, ?, ?, 0, ?, CURRENT_TIMESTAMP, ?)";
+    private static final String INSERT_MULTIMEDIA =
+        "INSERT INTO MULTIMEDIA (MEDIA, URL, DESCRIPTION, UPLOAD_DATE, ANIMALID) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_MULTIMEDIA = "DELETE FROM MULTIMEDIA WHERE URL = ?";
+    private static final String DELETE_PLACEHOLDER =
+        "DELETE FROM ANIMAL WHERE ANIMALID = ? AND NOT EXISTS (SELECT 1 FROM MULTIMEDIA WHERE ANIMALID = ?)";
+
+    private final AnimalRepository animalRepository;
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private record AnimalKey(String name, String species) {
+    }
+
+    /**
+     * Start an import for the given user, loading their animals once.
+     */
+    public Plan begin(User importUser) {
+        Map<AnimalKey, Animal> animals = new HashMap<>();
+        for (Animal animal : animalRepository.findByUserUserId(importUser.getUserId())) {
+            animals.putIfAbsent(new AnimalKey(animal.getName(), animal.getSpecies()), animal);
+        }
+        return new Plan(importUser, animals);
+    }
+
+    public class Plan {
+
+        private final User importUser;
+        private final Map<AnimalKey, Animal> animals;
+        private final Map<AnimalKey, Animal> createdAnimals = new LinkedHashMap<>();
+
+        private Plan(User importUser, Map<AnimalKey, Animal> animals) {
+            this.importUser = importUser;
+            this.animals = animals;
+        }
+
+        /**
+         * Write the rows for a batch of stored files in one transaction (joining
+         * the caller's, if any). {@code newFileNames} holds the stored name of
+         * each file, in the same order.
+         */
+        public void commit(List<SerializableFileData> files, List<String> newFileNames) {
+            Map<AnimalKey, Animal> created = new LinkedHashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Animal> rowAnimals = resolveAnimals(files, created);
+                    if (!created.isEmpty()) {
+                        insertPlaceholders(created.values());
+                    }
+                    insertMultiMedia(files, newFileNames, rowAnimals);
+                });
+            } catch (RuntimeException e) {
+                // Placeholders from a rolled back batch do not exist
+                created.keySet().forEach(animals::remove);
+                throw e;
+            }
+            createdAnimals.putAll(created);
+        }
+
+        /**
+         * Undo committed batches: delete the MULTIMEDIA rows of the given files
+         * and the placeholder animals this plan created, unless something else
+         * now points at them. The files themselves belong to the caller.
+         */
+        public void rollback(List<String> mediaTypes, List<String> newFileNames) {
+            List<String> urls = new ArrayList<>(newFileNames.size());
+            for (int i = 0; i < newFileNames.size(); i++) {
+                urls.add(fileStorageService.getPublicUrl(mediaTypes.get(i), newFileNames.get(i)));
+            }
+            List<Long> placeholderIds = createdAnimals.values().stream().map(Animal::getAnimalId).toList();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!urls.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_MULTIMEDIA, urls, urls.size(), (ps, url) -> ps.setString(1, url));
+                }
+                if (!placeholderIds.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_PLACEHOLDER, placeholderIds, placeholderIds.size(), (ps, id) -> {
+                        ps.setLong(1, id);
+                        ps.setLong(2, id);
+                    });
+                }
+            });
+
+            createdAnimals.keySet().forEach(animals::remove);
+            createdAnimals.clear();
+            log.info("Rolled back {} MULTIMEDIA rows and {} placeholder animals for user {}",
+                urls.size(), placeholderIds.size(), importUser.getUserId());
+        }
+
+        private List<Animal> resolveAnimals(List<SerializableFileData> files, Map<AnimalKey, Animal> created) {
+            List<Animal> rowAnimals = new ArrayList<>(files.size());
+            for (SerializableFileData fileData : files) {
+                if (fileData.getAnimalId() == null || fileData.getAnimalName() == null) {
+                    rowAnimals.add(null);
+                    continue;
+                }
+
+                AnimalKey key = new AnimalKey(fileData.getAnimalName(), fileData.getAnimalSpecies());
+                Animal animal = animals.get(key);
+                if (animal == null) {
+                    // Placeholder left by an earlier import of the same animal
+                    animal = animals.get(new AnimalKey(fileData.getAnimalName() + IMPORTED_SUFFIX, fileData.getAnimalSpecies()));
+                }
+                if (animal == null) {
+                    animal = newPlaceholder(fileData);
+                    animals.put(key, animal);
+                    created.put(key, animal);
+                }
+                rowAnimals.add(animal);
+            }
+            return rowAnimals;
+        }
+
+        private Animal newPlaceholder(SerializableFileData fileData) {
+            Animal animal = new Animal();
+            animal.setName(fileData.getAnimalName() + IMPORTED_SUFFIX);
+            animal.setSpecies(fileData.getAnimalSpecies());
+            animal.setBreed(fileData.getAnimalBreed());
+            animal.setAge(0); // Default age
+            animal.setGender(Animal.Gender.male); // Default gender
+            animal.setUser(importUser);
+            return animal;
+        }
+
+        /**
+         * Insert placeholder animals with one JDBC batch. ANIMALID is an identity
+         * column, so Hibernate would insert them one by one; a JDBC batch does not
+         * return generated keys either, so the new ids are read back in one query.
+         */
+        private void insertPlaceholders(Collection<Animal> placeholders) {
+            List<Animal> rows = new ArrayList<>(placeholders);
+            jdbcTemplate.batchUpdate(INSERT_PLACEHOLDER, rows, rows.size(), (ps, animal) -> {
+                ps.setString(1, animal.getName());
+                ps.setString(2, animal.getBreed());
+                ps.setString(3, animal.getSpecies());
+                ps.setInt(4, animal.getAge());
+                ps.setString(5, animal.getGender().name());
+                ps.setLong(6, importUser.getUserId());
+            });
+
+            List<Object> args = new ArrayList<>(rows.size() + 1);
+            args.add(importUser.getUserId());
+            rows.forEach(animal -> args.add(animal.getName()));
+            Map<AnimalKey, Long> ids = new HashMap<>();
+            jdbcTemplate.query("SELECT ANIMALID, NAME, SPECIES FROM ANIMAL WHERE USERID = ? AND NAME IN ("
+                    + String.join(", ", Collections.nCopies(rows.size(), "?")) + ") ORDER BY ANIMALID",
+                (ResultSet rs) -> {
+                    ids.put(new AnimalKey(rs.getString("NAME"), rs.getString("SPECIES")), rs.getLong("ANIMALID"));
+                }, args.toArray());
+
+            for (Animal animal : rows) {
+                Long id = ids.get(new AnimalKey(animal.getName(), animal.getSpecies()));
+                if (id == null) {
+                    throw new IllegalStateException("Placeholder animal was not created: " + animal.getName());
+                }
+                animal.setAnimalId(id);
+            }
+            log.debug("Inserted {} placeholder animals for user {}", rows.size(), importUser.getUserId());
+        }
+
+        private void insertMultiMedia(List<SerializableFileData> files, List<String> newFileNames, List<Animal> rowAnimals) {
+            jdbcTemplate.batchUpdate(INSERT_MULTIMEDIA, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    SerializableFileData fileData = files.get(i);
+                    Animal animal = rowAnimals.get(i);
+                    ps.setString(1, fileData.getMediaType());
+                    ps.setString(2, fileStorageService.getPublicUrl(fileData.getMediaType(), newFileNames.get(i)));
+                    ps.setString(3, fileData.getDescription() + " (Imported from package)");
+                    if (fileData.getUploadDate() != null) {
+                        ps.setDate(4, Date.valueOf(fileData.getUploadDate()));
+                    } else {
+                        ps.setNull(4, Types.DATE);
+                    }
+                    if (animal != null) {
+                        ps.setLong(5, animal.getAnimalId());
+                    } else {
+                        ps.setNull(5, Types.NUMERIC);
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return files.size();
+                }
+            });
+            log.debug("Inserted {} MULTIMEDIA rows for user {}", files.size(), importUser.getUserId());
+        }
+    }
+}
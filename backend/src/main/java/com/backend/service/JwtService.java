@@ -1,74 +1,134 @@
 package com.backend.service;
 
+import com.backend.security.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens. Tokens carry only the compact claims
+ * {@code uid} and {@code adm} plus a {@code kid} header naming the signing
+ * key; display fields are served by {@code /users/me}. Tokens in the old
+ * format ({@code userId}/{@code isAdmin}, no key id) are still accepted until
+ * {@code jwt.legacy-tokens.accept-until}, or indefinitely if it is blank.
+ */
 @Service
+@RequiredArgsConstructor
 public class JwtService {
     
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ADMIN = "adm";
+    
+    private static final String LEGACY_CLAIM_USER_ID = "userId";
+    private static final String LEGACY_CLAIM_ADMIN = "isAdmin";
+    
+    private final ChecksumEngine checksumEngine;
+    
     @Value("${jwt.secret}")
     private String secretKey;
     
+    @Value("${jwt.key-id:k1}")
+    private String keyId;
+    
+    // Previous key, kept while tokens signed with it are still live
+    @Value("${jwt.previous-secret:}")
+    private String previousSecretKey;
+    
+    @Value("${jwt.previous-key-id:}")
+    private String previousKeyId;
+    
+    @Value("${jwt.legacy-tokens.accept-until:}")
+    private String legacyTokensAcceptUntil;
+    
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
-    }
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
     
-    public String generateToken(Long userId, String email, boolean isAdmin) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("email", email);
-        claims.put("isAdmin", isAdmin);
-        
-        return createToken(claims, email);
+    // Derived once; the parser is immutable and thread-safe
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private Instant legacyCutoff;
+    private JwtParser parser;
+    
+    /**
+     * Verified claims keyed by SHA-256 of the token, so the token itself is not retained
+     */
+    private final Map<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+    
+    private record CachedClaims(Claims claims, long expiresAtMillis) {
     }
     
-    public String generateUserToken(Long userId, String email, String firstName, String lastName, String phone, String createdAt) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("id", userId); 
-        claims.put("email", email != null ? email : "");
-        claims.put("firstName", firstName != null ? firstName : "");
-        claims.put("lastName", lastName != null ? lastName : "");
-        claims.put("phone", phone != null ? phone : "");
-        claims.put("createdAt", createdAt != null ? createdAt : "");
-        claims.put("isAdmin", false);
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
         
-        return createToken(claims, email != null ? email : "unknown");
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        if (!previousSecretKey.isBlank() && !previousKeyId.isBlank()) {
+            keys.put(previousKeyId, Keys.hmacShaKeyFor(previousSecretKey.getBytes()));
+        }
+        verificationKeys = Map.copyOf(keys);
+        legacyCutoff = legacyTokensAcceptUntil.isBlank() ? null : Instant.parse(legacyTokensAcceptUntil);
+        
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return resolveVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
     
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+    public String generateToken(Long userId, boolean isAdmin) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
+                .header().keyId(keyId).and()
+                .claim(CLAIM_USER_ID, userId);
+        if (isAdmin) {
+            builder.claim(CLAIM_ADMIN, true);
+        }
+        return builder
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
     
-    public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Verify the token and build the request principal from a single parse.
+     */
+    public AuthenticatedUser authenticate(String token) {
+        return extractClaim(token, claims -> new AuthenticatedUser(userId(claims), isAdmin(claims)));
     }
     
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return extractClaim(token, JwtService::userId);
     }
     
     public Boolean extractIsAdmin(String token) {
-        return extractClaim(token, claims -> claims.get("isAdmin", Boolean.class));
+        return extractClaim(token, JwtService::isAdmin);
     }
     
     public Date extractExpiration(String token) {
@@ -80,20 +140,78 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
+    /**
+     * Verify the token once and serve later lookups from the cache until the
+     * token's expiry. Tokens that fail verification are never cached.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String key = checksumEngine.sha256(token.getBytes(StandardCharsets.US_ASCII));
+        long now = System.currentTimeMillis();
+        
+        CachedClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                checkFormat(cached.claims());
+                return cached.claims();
+            }
+            claimsCache.remove(key);
+        }
+        
+        // Throws ExpiredJwtException etc. exactly as before for bad tokens
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        checkFormat(claims);
+        
+        if (claims.getExpiration() != null) {
+            if (claimsCache.size() >= claimsCacheMaxEntries) {
+                evictClaims(now);
+            }
+            claimsCache.put(key, new CachedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+    
+    /**
+     * Drop expired entries; if the cache is still full, drop arbitrary entries
+     * until it is back under 90% (they are simply re-verified on next use).
+     */
+    private void evictClaims(long now) {
+        claimsCache.values().removeIf(entry -> now >= entry.expiresAtMillis());
+        
+        int target = claimsCacheMaxEntries * 9 / 10;
+        Iterator<String> keys = claimsCache.keySet().iterator();
+        while (claimsCache.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private SecretKey resolveVerificationKey(String kid) {
+        if (kid == null) {
+            // Legacy tokens were issued without a key id, always with the current secret
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+    
+    private void checkFormat(Claims claims) {
+        if (legacyCutoff != null && !claims.containsKey(CLAIM_USER_ID) && Instant.now().isAfter(legacyCutoff)) {
+            throw new UnsupportedJwtException("Legacy token format is no longer accepted");
+        }
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static Long userId(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        return userId != null ? userId : claims.get(LEGACY_CLAIM_USER_ID, Long.class);
     }
     
-    public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
+    private static Boolean isAdmin(Claims claims) {
+        if (claims.containsKey(CLAIM_USER_ID)) {
+            return Boolean.TRUE.equals(claims.get(CLAIM_ADMIN, Boolean.class));
+        }
+        return Boolean.TRUE.equals(claims.get(LEGACY_CLAIM_ADMIN, Boolean.class));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,278 @@
+package com.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes media files that no MULTIMEDIA row points at any more (deleted
+ * animals, failed imports). Each run loads the referenced "/server/{type}/{name}"
+ * URLs as a sorted array of 64-bit hashes, then walks the media directories
+ * and deletes unreferenced files older than the grace period, at a bounded
+ * rate. A hash collision only ever keeps a file, never deletes one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaGarbageCollector {
+
+    private static final String PUBLIC_PREFIX = "/server/";
+    private static final Set<String> MEDIA_TYPES = Set.of("photo", "video", "audio");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Qualifier("generalThreadPoolTaskExecutor")
+    private final Executor gcExecutor;
+
+    @Value("${file.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${file.media-gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${file.media-gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${file.media-gc.max-deletes-per-second:20}")
+    private int maxDeletesPerSecond;
+
+    @Value("${file.media-gc.fetch-size:1000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile long lastRunMillis;
+    private volatile long lastRunBytes;
+
+    /**
+     * Hand a run to the general pool, so the throttled walk never blocks the
+     * shared scheduler thread. Skipped while a previous run is still going.
+     */
+    @Scheduled(initialDelayString = "${file.media-gc.initial-delay-ms:600000}",
+               fixedDelayString = "${file.media-gc.interval-ms:3600000}")
+    public void scheduleRun() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            gcExecutor.execute(() -> {
+                try {
+                    collect();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("Media GC run skipped, executor is saturated");
+        }
+    }
+
+    /**
+     * One full pass. Returns the number of bytes reclaimed.
+     */
+    public long collect() {
+        long started = System.currentTimeMillis();
+        // Only files last modified before the reference snapshot minus the grace period are candidates
+        long cutoff = started - TimeUnit.HOURS.toMillis(graceHours);
+
+        Path root = Paths.get(uploadDir);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        long[] referenced = loadReferencedHashes();
+        if (referenced.length == 0) {
+            // An empty table more likely means the wrong schema than no media at all
+            log.warn("Media GC found no MULTIMEDIA references, skipping run");
+            return 0;
+        }
+
+        OrphanVisitor visitor = new OrphanVisitor(root, referenced, cutoff);
+        try {
+            Files.walkFileTree(root, visitor);
+        } catch (IOException e) {
+            log.warn("Media GC walk of {} failed: {}", root, e.getMessage());
+        }
+
+        runs.incrementAndGet();
+        filesDeleted.addAndGet(visitor.deleted);
+        bytesReclaimed.addAndGet(visitor.bytes);
+        lastRunMillis = System.currentTimeMillis() - started;
+        lastRunBytes = visitor.bytes;
+
+        log.info("Media GC scanned {} files against {} references in {} ms, deleted {} ({} bytes)",
+            visitor.scanned, referenced.length, lastRunMillis, visitor.deleted, visitor.bytes);
+        return visitor.bytes;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("runs", runs.get());
+        stats.put("running", running.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunBytesReclaimed", lastRunBytes);
+        return stats;
+    }
+
+    /**
+     * Stream the URL column into a growing long[] of hashes and sort it.
+     */
+    private long[] loadReferencedHashes() {
+        HashCollector collector = new HashCollector();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT URL FROM MULTIMEDIA WHERE URL LIKE '" + PUBLIC_PREFIX + "%'");
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            String url = rs.getString(1);
+            if (url != null) {
+                collector.add(hash(url.substring(PUBLIC_PREFIX.length())));
+            }
+        });
+        return collector.sorted();
+    }
+
+    private static final class HashCollector {
+
+        private long[] hashes = new long[1024];
+        private int size;
+
+        void add(long hash) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            hashes[size++] = hash;
+        }
+
+        long[] sorted() {
+            long[] result = Arrays.copyOf(hashes, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * Visits {@code {uploadDir}/{photo|video|audio}/{file}} only.
+     */
+    private final class OrphanVisitor extends SimpleFileVisitor<Path> {
+
+        private final Path root;
+        private final long[] referenced;
+        private final long cutoff;
+        private final long minNanosBetweenDeletes;
+        private long lastDeleteNanos;
+        private long scanned;
+        private long deleted;
+        private long bytes;
+
+        OrphanVisitor(Path root, long[] referenced, long cutoff) {
+            this.root = root;
+            this.referenced = referenced;
+            this.cutoff = cutoff;
+            this.minNanosBetweenDeletes = maxDeletesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxDeletesPerSecond : 0;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (dir.equals(root)) {
+                return FileVisitResult.CONTINUE;
+            }
+            boolean mediaDir = dir.getParent().equals(root) && MEDIA_TYPES.contains(dir.getFileName().toString());
+            return mediaDir ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            Path parent = file.getParent();
+            if (!attrs.isRegularFile() || parent.equals(root)) {
+                return FileVisitResult.CONTINUE;
+            }
+            scanned++;
+
+            if (attrs.lastModifiedTime().toMillis() >= cutoff) {
+                return FileVisitResult.CONTINUE;
+            }
+            String key = parent.getFileName() + "/" + file.getFileName();
+            if (Arrays.binarySearch(referenced, hash(key)) >= 0) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            throttle();
+            try {
+                Files.delete(file);
+                deleted++;
+                bytes += attrs.size();
+                log.debug("Media GC deleted orphan {}", file);
+            } catch (IOException e) {
+                log.warn("Media GC could not delete {}: {}", file, e.getMessage());
+            }
+            return Thread.currentThread().isInterrupted() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            log.debug("Media GC skipped unreadable {}: {}", file, exc.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void throttle() {
+            if (minNanosBetweenDeletes == 0) {
+                return;
+            }
+            long wait = lastDeleteNanos + minNanosBetweenDeletes - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            lastDeleteNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units of "{type}/{filename}".
+     */
+    private static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            hash ^= c & 0xff;
+            hash *= FNV_PRIME;
+            hash ^= c >>> 8;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 public class MessageService {
       private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final DomainEventLog domainEventLog;
     
     // Synchronous method for immediate message sending
     public Long sendMessage(Long senderId, Long receiverId, String content) {
@@ -46,6 +47,7 @@ public class MessageService {
         message.setIsRead(false);
         
         Message savedMessage = messageRepository.save(message);
+        domainEventLog.recordAfterCommit(DomainEventLog.Type.MESSAGE_SENT, senderId, receiverId);
           // Async background processing
         processMessageAsync(savedMessage.getMessageId(), senderId, receiverId);
         
@@ -55,12 +57,12 @@ public class MessageService {
     public CompletableFuture<Void> processMessageAsync(Long messageId, Long senderId, Long receiverId) {
         return CompletableFuture.runAsync(() -> {
             try {
-                log.info("Processing message {} asynchronously", messageId);
+                log.debug("Processing message {} asynchronously", messageId);
                 
                 // Future processing can be added here if needed
                 // For now, just log the successful processing
                 
-                log.info("Message processing completed for message {}", messageId);
+                log.debug("Message processing completed for message {}", messageId);
                 
             } catch (Exception e) {
                 log.error("Error processing message {} asynchronously", messageId, e);
@@ -252,7 +254,8 @@ public class MessageService {
         return CompletableFuture.runAsync(() -> {
             try {
                 messageRepository.markAsRead(userId, otherUserId);
-                log.info("Messages marked as read for user {} from user {}", userId, otherUserId);
+                domainEventLog.record(DomainEventLog.Type.MESSAGES_READ, userId, otherUserId);
+                log.debug("Messages marked as read for user {} from user {}", userId, otherUserId);
                 
                 // Additional async processing can be added here:
                 // - Update conversation timestamps
@@ -0,0 +1,183 @@
+package com.backend.service;
+
+import com.backend.model.AnimalCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects new-animal events per species until the species' digest window
+ * has elapsed. Events are deduplicated by animal id. Every accepted event is
+ * appended to a journal first, and the journal is rewritten with whatever is
+ * still pending after each flush, so pending digests survive a restart (a
+ * crash mid-send means that digest is sent again).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsletterDigestAccumulator {
+
+    private static final String JOURNAL_FILE = "digest.journal";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${newsletter.digest.journal-dir:data/newsletter}")
+    private String journalDir;
+
+    @Value("${newsletter.digest.window-minutes:60}")
+    private long windowMinutes;
+
+    private final Object lock = new Object();
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    private static final class Bucket {
+        private final long openedAtMillis;
+        private final Map<Long, AnimalCreatedEvent> animals = new LinkedHashMap<>();
+
+        private Bucket(long openedAtMillis) {
+            this.openedAtMillis = openedAtMillis;
+        }
+    }
+
+    private record JournalEntry(long receivedAtMillis, AnimalCreatedEvent event) {
+    }
+
+    @PostConstruct
+    public void recoverJournal() {
+        Path journal = journalPath();
+        if (!Files.exists(journal)) {
+            return;
+        }
+        int recovered = 0;
+        try {
+            for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JournalEntry entry = objectMapper.readValue(line, JournalEntry.class);
+                    if (accept(entry)) {
+                        recovered++;
+                    }
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-append
+                    log.warn("Skipping unreadable digest journal line: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read digest journal {}: {}", journal, e.getMessage());
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} pending digest event(s) for {} species", recovered, buckets.size());
+        }
+    }
+
+    /**
+     * Add an event to its species' digest. Duplicates (same animal id) are ignored.
+     */
+    public void add(AnimalCreatedEvent event) {
+        JournalEntry entry = new JournalEntry(System.currentTimeMillis(), event);
+        synchronized (lock) {
+            if (!accept(entry)) {
+                return;
+            }
+            try {
+                Path journal = journalPath();
+                Files.createDirectories(journal.getParent());
+                Files.writeString(journal, objectMapper.writeValueAsString(entry) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.warn("Could not journal digest event for animal {}: {}", event.animalId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove and return the digests whose window has elapsed, keyed by
+     * species. Call {@link #compactJournal()} once they have been sent.
+     */
+    public Map<String, List<AnimalCreatedEvent>> takeDue(long nowMillis) {
+        long windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        Map<String, List<AnimalCreatedEvent>> due = new LinkedHashMap<>();
+        synchronized (lock) {
+            Iterator<Map.Entry<String, Bucket>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Bucket> entry = iterator.next();
+                if (entry.getValue().openedAtMillis + windowMillis <= nowMillis) {
+                    due.put(entry.getKey(), new ArrayList<>(entry.getValue().animals.values()));
+                    iterator.remove();
+                }
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Rewrite the journal with only the events still pending.
+     */
+    public void compactJournal() {
+        synchronized (lock) {
+            Path journal = journalPath();
+            Path temp = journal.resolveSibling(JOURNAL_FILE + ".tmp");
+            try {
+                Files.createDirectories(journal.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    for (Bucket bucket : buckets.values()) {
+                        for (AnimalCreatedEvent event : bucket.animals.values()) {
+                            writer.write(objectMapper.writeValueAsString(new JournalEntry(bucket.openedAtMillis, event)));
+                            writer.write('\n');
+                        }
+                    }
+                }
+                Files.move(temp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Could not compact digest journal {}: {}", journal, e.getMessage());
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            int pending = 0;
+            for (Bucket bucket : buckets.values()) {
+                pending += bucket.animals.size();
+            }
+            return pending;
+        }
+    }
+
+    /**
+     * Caller holds the lock (or is the single-threaded startup recovery).
+     */
+    private boolean accept(JournalEntry entry) {
+        AnimalCreatedEvent event = entry.event();
+        if (event == null || event.animalId() == null || event.species() == null) {
+            return false;
+        }
+        Bucket bucket = buckets.computeIfAbsent(event.species(), species -> new Bucket(entry.receivedAtMillis()));
+        return bucket.animals.putIfAbsent(event.animalId(), event) == null;
+    }
+
+    private Path journalPath() {
+        return Paths.get(journalDir, JOURNAL_FILE);
+    }
+}
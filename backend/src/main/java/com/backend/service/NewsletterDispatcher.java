@@ -0,0 +1,276 @@
+package com.backend.service;
+
+import com.backend.model.AnimalCreatedEvent;
+import com.backend.repository.NewsletterRepository;
+import com.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mails the subscribers of a species about newly listed animals of that
+ * species. By default events are collected by {@link NewsletterDigestAccumulator}
+ * and each subscriber gets one digest per species per window; otherwise every
+ * event is mailed on its own after the creating transaction commits. Either
+ * way the message is rendered once, subscriber ids come from
+ * {@link SubscriptionIndex}, and delivery goes through {@link NewsletterMailer}
+ * in batches on the newsletter executor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewsletterDispatcher {
+
+    private static final String SUBJECT_TEMPLATE = "New {species} up for adoption: {name}";
+    private static final String BODY_TEMPLATE = """
+        Hello,
+
+        {name}, a {age} year old {breed} {species}, has just been listed for adoption.
+
+        You are receiving this because you subscribed to {species} updates.
+        """;
+
+    private static final String DIGEST_SUBJECT_TEMPLATE = "{count} new {species} up for adoption";
+    private static final String DIGEST_BODY_TEMPLATE = """
+        Hello,
+
+        These {species} have just been listed for adoption:
+
+        {animals}
+        You are receiving this because you subscribed to {species} updates.
+        """;
+    private static final String DIGEST_LINE_TEMPLATE = "- {name}, a {age} year old {breed}\n";
+
+    private static final int MAX_IN_LIST = 1000;
+
+    private final NewsletterRepository newsletterRepository;
+    private final UserRepository userRepository;
+    private final SubscriptionIndex subscriptionIndex;
+    private final NewsletterMailer newsletterMailer;
+    private final NewsletterDigestAccumulator digestAccumulator;
+
+    @Qualifier("newsletterThreadPoolTaskExecutor")
+    private final Executor newsletterExecutor;
+
+    @Value("${newsletter.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${newsletter.digest.enabled:true}")
+    private boolean digestEnabled;
+
+    @Value("${newsletter.dispatch.page-size:500}")
+    private int pageSize;
+
+    @Value("${newsletter.mail.batch-size:50}")
+    private int batchSize;
+
+    private final AtomicLong dispatches = new AtomicLong();
+    private final AtomicLong rejectedDispatches = new AtomicLong();
+    private volatile double lastThroughputPerSecond;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnimalCreated(AnimalCreatedEvent event) {
+        if (!enabled || event.species() == null || event.species().isBlank()) {
+            return;
+        }
+        if (digestEnabled) {
+            digestAccumulator.add(event);
+            return;
+        }
+        try {
+            newsletterExecutor.execute(() -> dispatch(event));
+        } catch (RejectedExecutionException e) {
+            rejectedDispatches.incrementAndGet();
+            log.warn("Newsletter queue is full, dropping notification for animal {}", event.animalId());
+        }
+    }
+
+    /**
+     * Send the digests whose window has elapsed. The sending itself runs on the
+     * newsletter executor so pacing never holds up the scheduler thread.
+     */
+    @Scheduled(fixedDelayString = "${newsletter.digest.flush-interval-ms:60000}")
+    public void flushDigests() {
+        if (!enabled || !digestEnabled) {
+            return;
+        }
+        Map<String, List<AnimalCreatedEvent>> due = digestAccumulator.takeDue(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            newsletterExecutor.execute(() -> {
+                due.forEach(this::dispatchDigest);
+                digestAccumulator.compactJournal();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedDispatches.incrementAndGet();
+            log.warn("Newsletter queue is full, postponing {} digest(s)", due.size());
+            due.values().forEach(events -> events.forEach(digestAccumulator::add));
+        }
+    }
+
+    /**
+     * Send the notification for one event to every active subscriber of its
+     * species. Returns the number of messages delivered.
+     */
+    public int dispatch(AnimalCreatedEvent event) {
+        return sendToSubscribers(event.species(), render(SUBJECT_TEMPLATE, event), render(BODY_TEMPLATE, event),
+            event.ownerId());
+    }
+
+    /**
+     * Send one digest listing every animal of the species collected in the
+     * window. A single animal gets the regular notification instead.
+     */
+    public int dispatchDigest(String species, List<AnimalCreatedEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        if (events.size() == 1) {
+            return dispatch(events.get(0));
+        }
+
+        StringBuilder listing = new StringBuilder();
+        Long soleOwner = events.get(0).ownerId();
+        for (AnimalCreatedEvent event : events) {
+            listing.append(render(DIGEST_LINE_TEMPLATE, event));
+            if (soleOwner != null && !soleOwner.equals(event.ownerId())) {
+                soleOwner = null;
+            }
+        }
+        String subject = DIGEST_SUBJECT_TEMPLATE
+            .replace("{count}", String.valueOf(events.size()))
+            .replace("{species}", species);
+        String body = DIGEST_BODY_TEMPLATE
+            .replace("{species}", species)
+            .replace("{animals}", listing);
+        return sendToSubscribers(species, subject, body, soleOwner);
+    }
+
+    /**
+     * Send the same message to every active subscriber of the species,
+     * skipping {@code skipUserId} (the owner of the listing). Subscriber ids
+     * come from the in-memory index and only their emails are read, by
+     * primary key; until the index has loaded, subscribers are paged from
+     * NEWSLETTER instead.
+     */
+    private int sendToSubscribers(String species, String subject, String body, Long skipUserId) {
+        long started = System.nanoTime();
+        Fanout fanout = new Fanout(subject, body, skipUserId);
+
+        if (subscriptionIndex.isReady()) {
+            long[] ids = subscriptionIndex.getSubscribers(species);
+            int chunk = Math.min(pageSize, MAX_IN_LIST);
+            for (int from = 0; from < ids.length && !Thread.currentThread().isInterrupted(); from += chunk) {
+                List<Long> userIds = new ArrayList<>(chunk);
+                for (int i = from; i < Math.min(from + chunk, ids.length); i++) {
+                    userIds.add(ids[i]);
+                }
+                fanout.accept(userRepository.findEmailsByUserIdIn(userIds));
+            }
+        } else {
+            long afterUserId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Object[]> page = newsletterRepository.findActiveSubscriberContacts(
+                    species, afterUserId, PageRequest.of(0, pageSize));
+                if (!page.isEmpty()) {
+                    afterUserId = (Long) page.get(page.size() - 1)[0];
+                }
+                fanout.accept(page);
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+        }
+        fanout.flush();
+
+        dispatches.incrementAndGet();
+        if (fanout.recipients > 0) {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            lastThroughputPerSecond = fanout.delivered / Math.max(seconds, 1e-3);
+            log.info("Newsletter \"{}\": delivered {}/{} in {} ms ({} msg/s)",
+                subject, fanout.delivered, fanout.recipients, Math.round(seconds * 1000), Math.round(lastThroughputPerSecond));
+        }
+        return fanout.delivered;
+    }
+
+    /**
+     * Collects (userId, email) rows into mail batches of {@code batchSize}.
+     */
+    private final class Fanout {
+
+        private final String subject;
+        private final String body;
+        private final Long skipUserId;
+        private List<NewsletterMailer.Outgoing> batch = new ArrayList<>(batchSize);
+        private int recipients;
+        private int delivered;
+
+        private Fanout(String subject, String body, Long skipUserId) {
+            this.subject = subject;
+            this.body = body;
+            this.skipUserId = skipUserId;
+        }
+
+        void accept(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                Long userId = (Long) row[0];
+                String email = (String) row[1];
+                if (email == null || email.isBlank() || userId.equals(skipUserId)) {
+                    continue;
+                }
+                batch.add(new NewsletterMailer.Outgoing(email, subject, body));
+                recipients++;
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                delivered += newsletterMailer.sendBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("dispatches", dispatches.get());
+        stats.put("rejectedDispatches", rejectedDispatches.get());
+        stats.put("sent", newsletterMailer.getSentCount());
+        stats.put("failed", newsletterMailer.getFailedCount());
+        stats.put("retries", newsletterMailer.getRetryCount());
+        stats.put("lastThroughputPerSecond", lastThroughputPerSecond);
+        stats.put("digestPending", digestAccumulator.getPendingCount());
+        return stats;
+    }
+
+    private static String render(String template, AnimalCreatedEvent event) {
+        return template
+            .replace("{name}", valueOf(event.name()))
+            .replace("{species}", valueOf(event.species()))
+            .replace("{breed}", valueOf(event.breed()))
+            .replace("{age}", valueOf(event.age()));
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.backend.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound newsletter mail. Messages are sent in batches, each batch over a
+ * single SMTP connection, paced to {@code newsletter.mail.rate-per-second}.
+ * A failed batch is retried with exponential backoff; when the server
+ * rejected only some messages, only those are retried, and recipients it
+ * refused as invalid are dropped straight away.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsletterMailer {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${newsletter.mail.from:}")
+    private String from;
+
+    @Value("${newsletter.mail.rate-per-second:10}")
+    private double ratePerSecond;
+
+    @Value("${newsletter.mail.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${newsletter.mail.initial-backoff-ms:1000}")
+    private long initialBackoffMillis;
+
+    @Value("${newsletter.mail.max-backoff-ms:30000}")
+    private long maxBackoffMillis;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    private final Object pacingLock = new Object();
+    private long nextSendNanos;
+
+    public record Outgoing(String to, String subject, String body) {
+    }
+
+    /**
+     * Send one batch and return how many messages were delivered. Blocks for
+     * pacing and backoff; give up early if the thread is interrupted.
+     */
+    public int sendBatch(List<Outgoing> batch) {
+        List<MimeMessage> pending = new ArrayList<>(batch.size());
+        for (Outgoing outgoing : batch) {
+            try {
+                pending.add(toMimeMessage(outgoing));
+            } catch (MessagingException e) {
+                failed.incrementAndGet();
+                log.warn("Skipping newsletter to {}: {}", outgoing.to(), e.getMessage());
+            }
+        }
+
+        int built = pending.size();
+        int delivered = 0;
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (!pace(pending.size())) {
+                break;
+            }
+            try {
+                mailSender.send(pending.toArray(new MimeMessage[0]));
+                delivered += pending.size();
+                pending.clear();
+            } catch (MailSendException e) {
+                List<MimeMessage> retryable = new ArrayList<>();
+                int invalid = 0;
+                for (Map.Entry<Object, Exception> failure : e.getFailedMessages().entrySet()) {
+                    if (isInvalidRecipient(failure.getValue())) {
+                        invalid++;
+                    } else if (failure.getKey() instanceof MimeMessage mime) {
+                        retryable.add(mime);
+                    }
+                }
+                if (invalid + retryable.size() > 0) {
+                    delivered += pending.size() - invalid - retryable.size();
+                    pending = retryable;
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on {} newsletter message(s) after {} attempts: {}", pending.size(), attempt, e.getMessage());
+                    break;
+                }
+                retries.incrementAndGet();
+                log.debug("Newsletter batch attempt {} failed, retrying {} message(s) in {} ms", attempt, pending.size(), backoff);
+                if (!sleep(backoff)) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            } catch (MailAuthenticationException e) {
+                log.error("SMTP authentication failed, dropping {} newsletter message(s): {}", pending.size(), e.getMessage());
+                break;
+            } catch (MailException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on {} newsletter message(s) after {} attempts: {}", pending.size(), attempt, e.getMessage());
+                    break;
+                }
+                retries.incrementAndGet();
+                if (!sleep(backoff)) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+
+        sent.addAndGet(delivered);
+        failed.addAndGet(built - delivered);
+        return delivered;
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * A recipient the server refused outright (5xx); retrying will not help.
+     */
+    private static boolean isInvalidRecipient(Exception e) {
+        return e instanceof SendFailedException sfe
+            && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0;
+    }
+
+    private MimeMessage toMimeMessage(Outgoing outgoing) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, StandardCharsets.UTF_8.name());
+        if (from != null && !from.isBlank()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(outgoing.to());
+        helper.setSubject(outgoing.subject());
+        helper.setText(outgoing.body(), false);
+        return message;
+    }
+
+    /**
+     * Reserve {@code permits} sends and sleep until they are due. Returns
+     * false if interrupted.
+     */
+    private boolean pace(int permits) {
+        if (ratePerSecond <= 0) {
+            return true;
+        }
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long waitUntil;
+        synchronized (pacingLock) {
+            long now = System.nanoTime();
+            waitUntil = Math.max(nextSendNanos, now);
+            nextSendNanos = waitUntil + interval * permits;
+        }
+        long wait = waitUntil - System.nanoTime();
+        return wait <= 0 || sleep(TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
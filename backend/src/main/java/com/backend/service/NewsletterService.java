@@ -5,13 +5,17 @@ import com.backend.model.User;
 import com.backend.repository.NewsletterRepository;
 import com.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,8 +23,16 @@ import java.util.stream.Collectors;
 @Transactional
 public class NewsletterService {
     
+    private static final String DELETE_SUBSCRIPTION =
+            "DELETE FROM NEWSLETTER WHERE USERID = ? AND SPECIES = ?";
+    private static final String INSERT_SUBSCRIPTION =
+            "INSERT INTO NEWSLETTER (USERID, SPECIES, ISACTIVE, SUBSCRIBEDAT) VALUES (?, ?, 1, SYSDATE)";
+    
     private final NewsletterRepository newsletterRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SubscriptionIndex subscriptionIndex;
+    private final DomainEventLog domainEventLog;
     
     public List<Map<String, Object>> getSubscriptions(Long userId) {
         List<Newsletter> subscriptions = newsletterRepository.findByUserUserId(userId);
@@ -36,36 +48,82 @@ public class NewsletterService {
         }).collect(Collectors.toList());
     }
     
+    /**
+     * Replace the user's subscriptions with {@code speciesList}. The difference
+     * with the stored set is computed in memory and applied as one batched
+     * DELETE and one batched INSERT; existing rows are left untouched.
+     */
     public void updateSubscriptions(Long userId, List<String> speciesList) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        if (!userRepository.existsById(userId)) {
             throw new RuntimeException("User not found");
         }
         
-        User user = userOpt.get();
-        
-        List<Newsletter> existingSubscriptions = newsletterRepository.findByUserUserId(userId);
-        for (Newsletter existing : existingSubscriptions) {
-            if (!speciesList.contains(existing.getSpecies())) {
-                newsletterRepository.delete(existing);
+        Set<String> requested = new LinkedHashSet<>();
+        for (String species : speciesList) {
+            if (species != null && !species.isBlank()) {
+                requested.add(species);
             }
         }
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT SPECIES FROM NEWSLETTER WHERE USERID = ?", String.class, userId));
         
-        for (String species : speciesList) {
-            if (!newsletterRepository.existsByUserUserIdAndSpecies(userId, species)) {
-                Newsletter newsletter = new Newsletter();
-                newsletter.setUser(user);
-                newsletter.setSpecies(species);
-                newsletter.setIsActive(true);
-                newsletterRepository.save(newsletter);
+        List<String> removed = new ArrayList<>();
+        for (String species : existing) {
+            if (!requested.contains(species)) {
+                removed.add(species);
             }
         }
+        List<String> added = new ArrayList<>();
+        for (String species : requested) {
+            if (!existing.contains(species)) {
+                added.add(species);
+            }
+        }
+        
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SUBSCRIPTION, removed, removed.size(), (ps, species) -> {
+                ps.setLong(1, userId);
+                ps.setString(2, species);
+            });
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SUBSCRIPTION, added, added.size(), (ps, species) -> {
+                ps.setLong(1, userId);
+                ps.setString(2, species);
+            });
+        }
+        subscriptionIndex.applyAfterCommit(userId, added, removed);
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            domainEventLog.record(DomainEventLog.Type.SUBSCRIPTIONS_UPDATED, userId, 0);
+        }
     }
     
+    @Transactional(readOnly = true)
     public List<User> getSubscribersBySpecies(String species) {
-        List<Newsletter> subscriptions = newsletterRepository.findActiveSubscribersBySpecies(species);
-        return subscriptions.stream()
-                .map(Newsletter::getUser)
-                .collect(Collectors.toList());
+        if (!subscriptionIndex.isReady()) {
+            return newsletterRepository.findActiveSubscribersBySpecies(species).stream()
+                    .map(Newsletter::getUser)
+                    .collect(Collectors.toList());
+        }
+        long[] ids = subscriptionIndex.getSubscribers(species);
+        List<Long> userIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            userIds.add(id);
+        }
+        return userRepository.findAllById(userIds);
+    }
+    
+    public boolean isSubscribed(Long userId, String species) {
+        if (!subscriptionIndex.isReady()) {
+            return newsletterRepository.existsByUserUserIdAndSpecies(userId, species);
+        }
+        return subscriptionIndex.isSubscribed(userId, species);
+    }
+    
+    /**
+     * Active subscriber count per species, served from the in-memory index.
+     */
+    public Map<String, Integer> getSubscriberCounts() {
+        return subscriptionIndex.getSubscriberCounts();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
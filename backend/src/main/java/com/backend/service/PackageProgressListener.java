@@ -0,0 +1,13 @@
+package com.backend.service;
+
+/**
+ * Receives progress while a package is written or imported. Counts are
+ * cumulative. Implementations may throw to abort the operation.
+ */
+@FunctionalInterface
+public interface PackageProgressListener {
+
+    PackageProgressListener NONE = (filesDone, bytesDone) -> { };
+
+    void onProgress(int filesDone, long bytesDone);
+}
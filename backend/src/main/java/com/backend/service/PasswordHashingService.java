@@ -0,0 +1,132 @@
+package com.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Password hashing and verification with bcrypt. All bcrypt work runs on a
+ * pool sized to the core count, so a burst of logins queues there (and is
+ * rejected once the queue is full) instead of occupying every request thread.
+ * Rows still holding a plaintext password are verified by constant-time
+ * comparison (after a dummy bcrypt check) and should be rehashed by the
+ * caller after a successful login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingService {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    @Qualifier("passwordHashingThreadPoolTaskExecutor")
+    private final Executor hashingExecutor;
+
+    // 0 = calibrate against target-millis at startup
+    @Value("${security.password.bcrypt.strength:0}")
+    private int configuredStrength;
+
+    @Value("${security.password.bcrypt.target-millis:250}")
+    private long targetMillis;
+
+    private BCryptPasswordEncoder encoder;
+
+    // Verified against when the account does not exist, so unknown emails cost the same
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        int strength = configuredStrength > 0
+            ? Math.min(MAX_STRENGTH, Math.max(4, configuredStrength))
+            : calibrate(targetMillis);
+        encoder = new BCryptPasswordEncoder(strength);
+        dummyHash = encoder.encode("dummy-password-for-timing");
+        log.info("Password hashing uses bcrypt strength {}", strength);
+    }
+
+    /**
+     * Highest bcrypt strength (at least {@link #MIN_STRENGTH}) whose hash time on
+     * this machine stays within the target. Each strength step doubles the cost,
+     * so one measurement at the minimum is enough to extrapolate.
+     */
+    public static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("warm-up");
+
+        long start = System.nanoTime();
+        probe.encode("calibration-password");
+        double millis = Math.max(0.1, (System.nanoTime() - start) / 1_000_000.0);
+
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        if (millis > targetMillis) {
+            log.warn("bcrypt strength {} takes ~{} ms, above the {} ms target", strength, Math.round(millis), targetMillis);
+        }
+        return strength;
+    }
+
+    public String hash(String rawPassword) {
+        return onHashingPool(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a password against a stored bcrypt hash or legacy plaintext value.
+     * A null stored value (unknown account) or a plaintext one still pays for
+     * one bcrypt check.
+     */
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (storedPassword == null) {
+            onHashingPool(() -> encoder.matches(rawPassword, dummyHash));
+            return false;
+        }
+        if (!isHashed(storedPassword)) {
+            // Pay for a bcrypt check as well, so plaintext rows cannot be told apart by timing
+            onHashingPool(() -> encoder.matches(rawPassword, dummyHash));
+            return MessageDigest.isEqual(
+                rawPassword.getBytes(StandardCharsets.UTF_8),
+                storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return onHashingPool(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    /**
+     * True for plaintext rows and hashes weaker than the current strength.
+     */
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    private static boolean isHashed(String storedPassword) {
+        return storedPassword.length() == 60
+            && (storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$"));
+    }
+
+    private <T> T onHashingPool(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, hashingExecutor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("Too many sign-in attempts in progress, please retry", e);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 @RequiredArgsConstructor
 @Slf4j
 public class RealTimeMessageService {
+    private final DomainEventLog domainEventLog;
     private final ConcurrentHashMap<Long, CopyOnWriteArrayList<String>> activeUserSessions = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Long> sessionUserMap = new ConcurrentHashMap<>();
 
@@ -22,12 +23,13 @@ public class RealTimeMessageService {
     public CompletableFuture<Void> registerUserSessionAsync(Long userId, String sessionId) {
         return CompletableFuture.runAsync(() -> {
             try {
-                log.info("Registering session {} for user {}", sessionId, userId);
+                log.debug("Registering session {} for user {}", sessionId, userId);
 
                 activeUserSessions.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(sessionId);
                 sessionUserMap.put(sessionId, userId);
+                domainEventLog.record(DomainEventLog.Type.SESSION_OPENED, userId, 0);
 
-                log.info("Session {} registered successfully for user {}", sessionId, userId);
+                log.debug("Session {} registered successfully for user {}", sessionId, userId);
                 notifyUserOnlineStatusAsync(userId, true);
 
             } catch (Exception e) {
@@ -42,7 +44,8 @@ public class RealTimeMessageService {
             try {
                 Long userId = sessionUserMap.remove(sessionId);
                 if (userId != null) {
-                    log.info("Unregistering session {} for user {}", sessionId, userId);
+                    domainEventLog.record(DomainEventLog.Type.SESSION_CLOSED, userId, 0);
+                    log.debug("Unregistering session {} for user {}", sessionId, userId);
 
                     CopyOnWriteArrayList<String> userSessions = activeUserSessions.get(userId);
                     if (userSessions != null) {
@@ -50,11 +53,11 @@ public class RealTimeMessageService {
 
                         if (userSessions.isEmpty()) {
                             activeUserSessions.remove(userId);
-                            log.info("User {} is now offline - last session removed", userId);
+                            log.debug("User {} is now offline - last session removed", userId);
                             notifyUserOnlineStatusAsync(userId, false).join();
                         }
                     }
-                    log.info("Session {} unregistered successfully", sessionId);
+                    log.debug("Session {} unregistered successfully", sessionId);
                 }
             } catch (Exception e) {
                 log.error("Error unregistering session {}", sessionId, e);
@@ -68,7 +71,7 @@ public class RealTimeMessageService {
             try {
                 CopyOnWriteArrayList<String> userSessions = activeUserSessions.get(userId);
                 if (userSessions != null && !userSessions.isEmpty()) {
-                    log.info("Sending real-time notification to {} sessions for user {}", userSessions.size(), userId);
+                    log.debug("Sending real-time notification to {} sessions for user {}", userSessions.size(), userId);
                     userSessions.parallelStream().forEach(sessionId -> {
                         try {
                             log.debug("Real-time update sent to session {}: {}", sessionId,
@@ -78,7 +81,7 @@ public class RealTimeMessageService {
                         }
                     });
 
-                    log.info("Real-time notifications sent to user {}", userId);
+                    log.debug("Real-time notifications sent to user {}", userId);
                 } else {
                     log.debug("No active sessions found for user {}", userId);
                 }
@@ -92,7 +95,7 @@ public class RealTimeMessageService {
     public CompletableFuture<Void> notifyUserOnlineStatusAsync(Long userId, boolean isOnline) {
         return CompletableFuture.runAsync(() -> {
             try {
-                log.info("User {} is now {}", userId, isOnline ? "online" : "offline");
+                log.debug("User {} is now {}", userId, isOnline ? "online" : "offline");
                 
                 if (!isOnline) {
                     activeUserSessions.remove(userId);
@@ -145,11 +148,11 @@ public class RealTimeMessageService {
     public CompletableFuture<Void> broadcastMessageAsync(java.util.List<Long> userIds, Object messageData) {
         return CompletableFuture.runAsync(() -> {
             try {
-                log.info("Broadcasting message to {} users", userIds.size());
+                log.debug("Broadcasting message to {} users", userIds.size());
                 userIds.parallelStream().forEach(userId -> {
                     sendRealTimeNotificationAsync(userId, messageData);
                 });
-                log.info("Message broadcast completed");
+                log.debug("Message broadcast completed");
             } catch (Exception e) {
                 log.error("Error broadcasting message", e);
             }
@@ -160,7 +163,17 @@ public class RealTimeMessageService {
         return CompletableFuture.supplyAsync(() -> {
             return activeUserSessions.size();
         });
-    }    public CompletableFuture<Boolean> isUserOnlineAsync(Long userId) {
+    }
+
+    public int getOnlineUserCount() {
+        return activeUserSessions.size();
+    }
+
+    public int getActiveSessionCount() {
+        return sessionUserMap.size();
+    }
+
+    public CompletableFuture<Boolean> isUserOnlineAsync(Long userId) {
         return CompletableFuture.supplyAsync(() -> {
             CopyOnWriteArrayList<String> userSessions = activeUserSessions.get(userId);
             boolean isOnline = userSessions != null && !userSessions.isEmpty();
@@ -173,12 +186,12 @@ public class RealTimeMessageService {
     public CompletableFuture<Void> cleanupInactiveSessionsAsync() {
         return CompletableFuture.runAsync(() -> {
             try {
-                log.info("Starting cleanup of inactive sessions");
+                log.debug("Starting cleanup of inactive sessions");
                 activeUserSessions.entrySet().removeIf(entry -> {
                     CopyOnWriteArrayList<String> sessions = entry.getValue();
                     return sessions.isEmpty();
                 });
-                log.info("Session cleanup completed");
+                log.debug("Session cleanup completed");
             } catch (Exception e) {
                 log.error("Error during session cleanup", e);
             }
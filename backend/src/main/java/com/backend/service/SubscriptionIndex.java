@@ -0,0 +1,211 @@
+package com.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of active newsletter subscriptions: species to a sorted
+ * long[] of subscriber user ids. Arrays are replaced, never modified, so
+ * readers need no locking; subscription counts, "is subscribed" checks and
+ * subscriber enumeration never touch the database. Changes are applied
+ * after the writing transaction commits, and the index is rebuilt from
+ * NEWSLETTER at startup and periodically to correct any drift.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Map<String, long[]> subscribers = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    private final Object writeLock = new Object();
+    /** Changes made while a rebuild is loading, replayed onto the new index. Guarded by writeLock. */
+    private List<Consumer<Map<String, long[]>>> pendingDuringRebuild;
+
+    // Invoked by the listener and the scheduler through the proxy, so the startup load is timed too
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${newsletter.index.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${newsletter.index.rebuild-interval-ms:3600000}")
+    @Timed(value = "db.query", extraTags = {"query", "newsletter.index.load"}, histogram = true)
+    public void rebuild() {
+        synchronized (writeLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long started = System.currentTimeMillis();
+        Map<String, long[]> loaded = new ConcurrentHashMap<>();
+        try {
+            Map<String, LongList> lists = new HashMap<>();
+            jdbcTemplate.query("SELECT SPECIES, USERID FROM NEWSLETTER WHERE ISACTIVE = 1", rs -> {
+                lists.computeIfAbsent(rs.getString(1), species -> new LongList()).add(rs.getLong(2));
+            });
+            lists.forEach((species, ids) -> loaded.put(species, ids.toSortedDistinct()));
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+            log.warn("Could not rebuild subscription index: {}", e.getMessage());
+            return;
+        }
+
+        int replayed;
+        synchronized (writeLock) {
+            replayed = pendingDuringRebuild.size();
+            pendingDuringRebuild.forEach(change -> change.accept(loaded));
+            pendingDuringRebuild = null;
+            subscribers = loaded;
+            ready = true;
+        }
+        log.info("Subscription index rebuilt: {} species, {} subscriptions in {} ms ({} concurrent changes replayed)",
+            loaded.size(), loaded.values().stream().mapToInt(ids -> ids.length).sum(),
+            System.currentTimeMillis() - started, replayed);
+    }
+
+    /**
+     * False until the first load has finished; callers should fall back to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isSubscribed(long userId, String species) {
+        return Arrays.binarySearch(subscribers.getOrDefault(species, EMPTY), userId) >= 0;
+    }
+
+    /**
+     * Subscriber ids of the species in ascending order. The array is shared; do not modify it.
+     */
+    public long[] getSubscribers(String species) {
+        return subscribers.getOrDefault(species, EMPTY);
+    }
+
+    public int getSubscriberCount(String species) {
+        return subscribers.getOrDefault(species, EMPTY).length;
+    }
+
+    public Map<String, Integer> getSubscriberCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        subscribers.forEach((species, ids) -> counts.put(species, ids.length));
+        return counts;
+    }
+
+    /**
+     * Record added and removed subscriptions of one user, once the current
+     * transaction (if any) commits.
+     */
+    public void applyAfterCommit(long userId, Collection<String> added, Collection<String> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        List<String> toAdd = List.copyOf(added);
+        List<String> toRemove = List.copyOf(removed);
+        afterCommit(() -> apply(index -> {
+            toAdd.forEach(species -> index.compute(species, (key, ids) -> with(ids, userId)));
+            toRemove.forEach(species -> index.computeIfPresent(species, (key, ids) -> without(ids, userId)));
+        }));
+    }
+
+    /**
+     * Drop every subscription of a deleted user, once the current transaction (if any) commits.
+     */
+    public void removeUserAfterCommit(long userId) {
+        afterCommit(() -> apply(index ->
+            index.replaceAll((species, ids) -> without(ids, userId))));
+    }
+
+    private void apply(Consumer<Map<String, long[]>> change) {
+        synchronized (writeLock) {
+            change.accept(subscribers);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long[] with(long[] ids, long userId) {
+        if (ids == null) {
+            return new long[]{userId};
+        }
+        int position = Arrays.binarySearch(ids, userId);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertAt = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = userId;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return result;
+    }
+
+    private static long[] without(long[] ids, long userId) {
+        int position = Arrays.binarySearch(ids, userId);
+        if (position < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedDistinct() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Deletes a user and everything that references them with one set-based
+ * DELETE per table, children first, instead of letting the JPA cascades load
+ * and remove each row. Media files of the deleted animals are removed in the
+ * background once the transaction has committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDeletionService {
+
+    private static final String PUBLIC_PREFIX = "/server/";
+
+    private static final String USER_ANIMALS = "SELECT ANIMALID FROM ANIMAL WHERE USERID = ?";
+
+    /** Tables in dependency order; every statement takes the user id as its only parameter(s). */
+    private static final List<Step> STEPS = List.of(
+        new Step("medicalHistory", "DELETE FROM MEDICALHISTORY WHERE ANIMALID IN (" + USER_ANIMALS + ")", 1),
+        new Step("feedingSchedules", "DELETE FROM FEEDINGSCHEDULE WHERE ANIMALID IN (" + USER_ANIMALS + ")", 1),
+        new Step("multimedia", "DELETE FROM MULTIMEDIA WHERE ANIMALID IN (" + USER_ANIMALS + ")", 1),
+        new Step("relations", "DELETE FROM RELATIONS WHERE ANIMALID IN (" + USER_ANIMALS + ")", 1),
+        new Step("animals", "DELETE FROM ANIMAL WHERE USERID = ?", 1),
+        new Step("messages", "DELETE FROM MESSAGES WHERE SENDERID = ? OR RECEIVERID = ?", 2),
+        new Step("newsletters", "DELETE FROM NEWSLETTER WHERE USERID = ?", 1),
+        new Step("addresses", "DELETE FROM ADDRESS WHERE USERID = ?", 1),
+        new Step("users", "DELETE FROM USERS WHERE USERID = ?", 1)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileStorageService fileStorageService;
+    private final SubscriptionIndex subscriptionIndex;
+    private final DomainEventLog domainEventLog;
+
+    @Qualifier("generalThreadPoolTaskExecutor")
+    private final Executor cleanupExecutor;
+
+    private record Step(String name, String sql, int userIdParams) {
+    }
+
+    private record DeletionResult(Map<String, Integer> counts, List<String> mediaUrls) {
+    }
+
+    /**
+     * Delete the user and their data in a single transaction. Returns the
+     * number of rows removed per table, in deletion order.
+     */
+    @Timed(value = "db.query", extraTags = {"query", "users.delete"}, histogram = true)
+    public Map<String, Integer> deleteUser(Long userId) {
+        long started = System.nanoTime();
+
+        DeletionResult result = transactionTemplate.execute(status -> {
+            // Lock the user row first so a concurrent delete of the same user waits here
+            List<Long> locked = jdbcTemplate.queryForList(
+                "SELECT USERID FROM USERS WHERE USERID = ? FOR UPDATE", Long.class, userId);
+            if (locked.isEmpty()) {
+                throw new RuntimeException("User not found");
+            }
+
+            List<String> mediaUrls = jdbcTemplate.queryForList(
+                "SELECT URL FROM MULTIMEDIA WHERE ANIMALID IN (" + USER_ANIMALS + ") AND URL IS NOT NULL",
+                String.class, userId);
+
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (Step step : STEPS) {
+                Object[] args = step.userIdParams() == 2 ? new Object[]{userId, userId} : new Object[]{userId};
+                counts.put(step.name(), jdbcTemplate.update(step.sql(), args));
+            }
+            return new DeletionResult(counts, mediaUrls);
+        });
+
+        subscriptionIndex.removeUserAfterCommit(userId);
+        domainEventLog.record(DomainEventLog.Type.USER_DELETED, 0, userId);
+        log.info("Deleted user {} in {} ms: {}", userId, (System.nanoTime() - started) / 1_000_000, result.counts());
+
+        if (!result.mediaUrls().isEmpty()) {
+            scheduleMediaCleanup(userId, result.mediaUrls());
+        }
+        return result.counts();
+    }
+
+    private void scheduleMediaCleanup(Long userId, List<String> mediaUrls) {
+        try {
+            cleanupExecutor.execute(() -> deleteMediaFiles(userId, mediaUrls));
+        } catch (RejectedExecutionException e) {
+            log.warn("Media cleanup for deleted user {} was rejected; {} files left on disk", userId, mediaUrls.size());
+        }
+    }
+
+    private void deleteMediaFiles(Long userId, List<String> mediaUrls) {
+        int deleted = 0;
+        for (String url : mediaUrls) {
+            String[] location = parsePublicUrl(url);
+            if (location == null || isStillReferenced(url)) {
+                continue;
+            }
+            if (fileStorageService.deleteFile(location[0], location[1])) {
+                deleted++;
+            }
+        }
+        log.info("Removed {} of {} media files for deleted user {}", deleted, mediaUrls.size(), userId);
+    }
+
+    /**
+     * URLs are free text, so another user's media row may point at the same file.
+     */
+    private boolean isStillReferenced(String url) {
+        Integer references = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM MULTIMEDIA WHERE URL = ?", Integer.class, url);
+        return references != null && references > 0;
+    }
+
+    /**
+     * Split a stored "/server/{mediaType}/{filename}" URL into its parts, or
+     * null for anything else (external links, unexpected nesting).
+     */
+    private static String[] parsePublicUrl(String url) {
+        if (!url.startsWith(PUBLIC_PREFIX)) {
+            return null;
+        }
+        String rest = url.substring(PUBLIC_PREFIX.length());
+        int slash = rest.indexOf('/');
+        if (slash <= 0 || slash == rest.length() - 1) {
+            return null;
+        }
+        String mediaType = rest.substring(0, slash);
+        String filename = rest.substring(slash + 1);
+        if (filename.contains("/") || filename.contains("\\") || filename.startsWith(".")
+                || mediaType.startsWith(".")) {
+            return null;
+        }
+        return new String[]{mediaType, filename};
+    }
+}
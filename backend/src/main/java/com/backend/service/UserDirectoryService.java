@@ -0,0 +1,316 @@
+package com.backend.service;
+
+import com.backend.dto.AddressResponse;
+import com.backend.dto.UserPageResponse;
+import com.backend.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin user listing straight over JDBC: keyset-paginated pages (no OFFSET,
+ * so page N costs the same as page 1) and NDJSON/CSV exports streamed from a
+ * cursor with a fixed fetch size, so neither path materializes every user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDirectoryService {
+
+    public enum SortField {
+        ID("u.USERID"),
+        NAME("NVL(u.LASTNAME, ' ')"),
+        EMAIL("NVL(u.EMAIL, ' ')"),
+        CREATED_AT("NVL(u.CREATEDAT, TIMESTAMP '1970-01-01 00:00:00')");
+
+        private final String expression;
+
+        SortField(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    private static final String SELECT_USERS =
+        "SELECT u.USERID, u.FIRSTNAME, u.LASTNAME, u.EMAIL, u.PHONE, u.CREATEDAT, "
+            + "a.ADDRESSID, a.STREET, a.CITY, a.STATE, a.ZIPCODE, a.COUNTRY "
+            + "FROM USERS u LEFT JOIN ADDRESS a ON a.USERID = u.USERID";
+
+    private static final String CSV_HEADER =
+        "userId,firstName,lastName,email,phone,createdAt,street,city,state,zipCode,country\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${admin.users.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${admin.users.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    // Same data source, but rows are pulled from the cursor in fixed-size batches
+    private JdbcTemplate exportJdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        exportJdbcTemplate.setFetchSize(exportFetchSize);
+    }
+
+    /**
+     * One page of users matching the search (a prefix of first name, last name,
+     * email or city), ordered by the sort field with the user id as tie-breaker.
+     */
+    @Timed(value = "db.query", extraTags = {"query", "users.page"}, histogram = true)
+    public UserPageResponse findPage(String search, SortField sort, boolean descending, int limit, String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_USERS);
+        String where = searchCondition(search, params);
+
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = Cursor.decode(cursor, sort);
+            String op = descending ? "<" : ">";
+            String keyset = sort == SortField.ID
+                ? "u.USERID " + op + " ?"
+                : "(" + sort.expression + " " + op + " ? OR (" + sort.expression + " = ? AND u.USERID " + op + " ?))";
+            where = where == null ? keyset : where + " AND " + keyset;
+            if (sort != SortField.ID) {
+                params.add(position.sortValue());
+                params.add(position.sortValue());
+            }
+            params.add(position.userId());
+        }
+        if (where != null) {
+            sql.append(" WHERE ").append(where);
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        sql.append(" ORDER BY ");
+        if (sort != SortField.ID) {
+            sql.append(sort.expression).append(direction).append(", ");
+        }
+        sql.append("u.USERID").append(direction).append(" FETCH FIRST ? ROWS ONLY");
+        params.add(pageSize + 1);
+
+        List<UserResponse> users = jdbcTemplate.query(sql.toString(), USER_ROW_MAPPER, params.toArray());
+
+        UserPageResponse page = new UserPageResponse();
+        page.setHasMore(users.size() > pageSize);
+        if (page.isHasMore()) {
+            users = users.subList(0, pageSize);
+            page.setNextCursor(Cursor.of(sort, users.get(users.size() - 1)).encode());
+        }
+        page.setUsers(users);
+
+        if (cursor == null || cursor.isBlank()) {
+            page.setTotal(countUsers(search));
+        }
+        return page;
+    }
+
+    /**
+     * Stream matching users as newline-delimited JSON, one {@link UserResponse} per line.
+     */
+    @Timed(value = "db.query", extraTags = {"query", "users.export.ndjson"}, histogram = true)
+    public void exportNdjson(String search, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        // Lines are separated explicitly below, not by Jackson's default space
+        generator.setRootValueSeparator(null);
+
+        int rows = streamUsers(search, user -> {
+            objectMapper.writeValue(generator, user);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+        log.info("Exported {} users as NDJSON", rows);
+    }
+
+    @Timed(value = "db.query", extraTags = {"query", "users.export.csv"}, histogram = true)
+    public void exportCsv(String search, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+
+        int rows = streamUsers(search, user -> {
+            AddressResponse address = user.getAddress();
+            writer.write(String.valueOf(user.getUserId()));
+            writeCsvField(writer, user.getFirstName());
+            writeCsvField(writer, user.getLastName());
+            writeCsvField(writer, user.getEmail());
+            writeCsvField(writer, user.getPhone());
+            writeCsvField(writer, user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
+            writeCsvField(writer, address != null ? address.getStreet() : null);
+            writeCsvField(writer, address != null ? address.getCity() : null);
+            writeCsvField(writer, address != null ? address.getState() : null);
+            writeCsvField(writer, address != null && address.getZipCode() != null ? address.getZipCode().toString() : null);
+            writeCsvField(writer, address != null ? address.getCountry() : null);
+            writer.write('\n');
+        });
+        writer.flush();
+        log.info("Exported {} users as CSV", rows);
+    }
+
+    private interface UserSink {
+        void accept(UserResponse user) throws IOException;
+    }
+
+    private int streamUsers(String search, UserSink sink) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String where = searchCondition(search, params);
+        String sql = SELECT_USERS + (where != null ? " WHERE " + where : "") + " ORDER BY u.USERID";
+
+        int[] rows = {0};
+        try {
+            exportJdbcTemplate.query(sql, rs -> {
+                try {
+                    sink.accept(USER_ROW_MAPPER.mapRow(rs, rows[0]++));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, params.toArray());
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed by JdbcTemplate
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private long countUsers(String search) {
+        List<Object> params = new ArrayList<>();
+        String where = searchCondition(search, params);
+        String sql = "SELECT COUNT(*) FROM USERS u LEFT JOIN ADDRESS a ON a.USERID = u.USERID"
+            + (where != null ? " WHERE " + where : "");
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+        return count != null ? count : 0;
+    }
+
+    private static String searchCondition(String search, List<Object> params) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String pattern = search.trim().toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        for (int i = 0; i < 4; i++) {
+            params.add(pattern);
+        }
+        return "(LOWER(u.FIRSTNAME) LIKE ? ESCAPE '\\' OR LOWER(u.LASTNAME) LIKE ? ESCAPE '\\'"
+            + " OR LOWER(u.EMAIL) LIKE ? ESCAPE '\\' OR LOWER(a.CITY) LIKE ? ESCAPE '\\')";
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // Keep spreadsheet apps from evaluating user-supplied values as formulas
+        if ("=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private static final RowMapper<UserResponse> USER_ROW_MAPPER = (rs, rowNum) -> {
+        UserResponse user = new UserResponse();
+        user.setUserId(rs.getLong("USERID"));
+        user.setFirstName(rs.getString("FIRSTNAME"));
+        user.setLastName(rs.getString("LASTNAME"));
+        user.setEmail(rs.getString("EMAIL"));
+        user.setPhone(rs.getString("PHONE"));
+        Timestamp createdAt = rs.getTimestamp("CREATEDAT");
+        user.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+
+        long addressId = rs.getLong("ADDRESSID");
+        if (!rs.wasNull()) {
+            AddressResponse address = new AddressResponse();
+            address.setAddressId(addressId);
+            address.setStreet(rs.getString("STREET"));
+            address.setCity(rs.getString("CITY"));
+            address.setState(rs.getString("STATE"));
+            address.setZipCode(getInteger(rs, "ZIPCODE"));
+            address.setCountry(rs.getString("COUNTRY"));
+            user.setAddress(address);
+        }
+        return user;
+    };
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Keyset position: the sort value and user id of the last row of a page,
+     * encoded as an opaque URL-safe token tied to the sort field.
+     */
+    private record Cursor(SortField sort, long userId, Object sortValue) {
+
+        static Cursor of(SortField sort, UserResponse last) {
+            Object value = switch (sort) {
+                case ID -> null;
+                case NAME -> last.getLastName() != null ? last.getLastName() : " ";
+                case EMAIL -> last.getEmail() != null ? last.getEmail() : " ";
+                case CREATED_AT -> last.getCreatedAt() != null
+                    ? Timestamp.valueOf(last.getCreatedAt()) : Timestamp.valueOf("1970-01-01 00:00:00");
+            };
+            return new Cursor(sort, last.getUserId(), value);
+        }
+
+        String encode() {
+            String value = switch (sort) {
+                case ID -> "";
+                case CREATED_AT -> String.valueOf(((Timestamp) sortValue).getTime());
+                default -> (String) sortValue;
+            };
+            String raw = sort.name() + "\n" + userId + "\n" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token, SortField expectedSort) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\n", 3);
+                SortField sort = SortField.valueOf(parts[0]);
+                if (sort != expectedSort || parts.length != 3) {
+                    throw new IllegalArgumentException("Cursor does not match the requested sort");
+                }
+                long userId = Long.parseLong(parts[1]);
+                Object value = switch (sort) {
+                    case ID -> null;
+                    case CREATED_AT -> new Timestamp(Long.parseLong(parts[2]));
+                    default -> parts[2];
+                };
+                return new Cursor(sort, userId, value);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
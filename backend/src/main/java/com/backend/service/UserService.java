@@ -3,17 +3,23 @@ package com.backend.service;
 import com.backend.dto.UserLoginRequest;
 import com.backend.dto.UserResponse;
 import com.backend.dto.UserSignupRequest;
+import com.backend.dto.UserProfileResponse;
 import com.backend.dto.AddressResponse;
 import com.backend.model.User;
 import com.backend.model.Address;
 import com.backend.repository.UserRepository;
 import com.backend.repository.AddressRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +30,20 @@ public class UserService {
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final JwtService jwtService;
+    private final PasswordHashingService passwordHashingService;
+    private final UserDeletionService userDeletionService;
+    private final DomainEventLog domainEventLog;
+    
+    @Value("${users.profile-cache.ttl-seconds:300}")
+    private long profileCacheTtlSeconds;
+    
+    @Value("${users.profile-cache.max-entries:10000}")
+    private int profileCacheMaxEntries;
+    
+    private final Map<Long, CachedProfile> profileCache = new ConcurrentHashMap<>();
+    
+    private record CachedProfile(UserProfileResponse profile, long expiresAtMillis) {
+    }
     
     public UserResponse createUser(UserSignupRequest request) {
         if (request.getFirstName() == null || request.getLastName() == null || 
@@ -40,7 +60,7 @@ public class UserService {
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
-        user.setPassword(request.getPassword()); 
+        user.setPassword(passwordHashingService.hash(request.getPassword()));
         user.setPhone(request.getPhone());
         
         User savedUser = userRepository.save(user);
@@ -65,38 +85,66 @@ public class UserService {
             addressRepository.save(address);
         }
         
+        domainEventLog.recordAfterCommit(DomainEventLog.Type.USER_SIGNED_UP, savedUser.getUserId(), 0);
         return convertToUserResponse(savedUser);
     }
     
+    /**
+     * Runs outside the class-level transaction so no connection is held while
+     * waiting for bcrypt; the lookup and any rehash save use their own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String authenticateUser(UserLoginRequest request) {
         Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
         
         if (userOpt.isEmpty()) {
+            passwordHashingService.matches(request.getPassword(), null);
             throw new RuntimeException("Invalid credentials");
         }
         
         User user = userOpt.get();
-        if (!request.getPassword().equals(user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
         
-        String createdAtString = "";
-        try {
-            if (user.getCreatedAt() != null) {
-                createdAtString = user.getCreatedAt().toString();
-            }
-        } catch (Exception e) {
-            createdAtString = "";
+        // Legacy plaintext rows (and weaker hashes) are upgraded on first successful login
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.hash(request.getPassword()));
+            userRepository.save(user);
+        }
+        
+        return jwtService.generateToken(user.getUserId(), false);
+    }
+    
+    /**
+     * Profile of the signed-in user, cached for {@code users.profile-cache.ttl-seconds}
+     * since every page load asks for it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserProfileResponse> getProfile(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedProfile cached = profileCache.get(userId);
+        if (cached != null && now < cached.expiresAtMillis()) {
+            return Optional.of(cached.profile());
         }
         
-        return jwtService.generateUserToken(
-            user.getUserId(), 
-            user.getEmail(), 
-            user.getFirstName(),
-            user.getLastName(),
-            user.getPhone(),
-            createdAtString
-        );
+        Optional<UserProfileResponse> profile = userRepository.findById(userId).map(this::convertToProfile);
+        if (profile.isPresent()) {
+            if (profileCache.size() >= profileCacheMaxEntries) {
+                profileCache.values().removeIf(entry -> now >= entry.expiresAtMillis());
+                if (profileCache.size() >= profileCacheMaxEntries) {
+                    profileCache.clear();
+                }
+            }
+            profileCache.put(userId, new CachedProfile(profile.get(), now + getProfileCacheTtl().toMillis()));
+        } else {
+            profileCache.remove(userId);
+        }
+        return profile;
+    }
+    
+    public Duration getProfileCacheTtl() {
+        return Duration.ofSeconds(profileCacheTtlSeconds);
     }
     
     public List<UserResponse> getAllUsersWithDetails() {
@@ -106,17 +154,32 @@ public class UserService {
                 .collect(Collectors.toList());
     }
     
-    public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new RuntimeException("User not found");
-        }
-        userRepository.deleteById(userId);
+    /**
+     * Delete the user and all of their data. Returns the deleted row counts per table.
+     * Runs outside the class-level transaction; the deletion commits its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Integer> deleteUser(Long userId) {
+        Map<String, Integer> deleted = userDeletionService.deleteUser(userId);
+        profileCache.remove(userId);
+        return deleted;
     }
     
     public Optional<User> findById(Long userId) {
         return userRepository.findById(userId);
     }
     
+    private UserProfileResponse convertToProfile(User user) {
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setId(user.getUserId());
+        profile.setEmail(user.getEmail());
+        profile.setFirstName(user.getFirstName());
+        profile.setLastName(user.getLastName());
+        profile.setPhone(user.getPhone());
+        profile.setCreatedAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : "");
+        return profile;
+    }
+    
     private UserResponse convertToUserResponse(User user) {
         UserResponse response = new UserResponse();
         response.setUserId(user.getUserId());
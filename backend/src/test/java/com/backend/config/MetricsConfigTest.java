@@ -0,0 +1,46 @@
+package com.backend.config;
+
+import com.backend.security.AuthRateLimiter;
+import com.backend.service.DomainEventLog;
+import com.backend.service.MediaGarbageCollector;
+import com.backend.service.NewsletterDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsConfigTest {
+
+    @Test
+    void statsCountersKeepUpdatingAfterGarbageCollection() throws InterruptedException {
+        AuthRateLimiter authRateLimiter = mock(AuthRateLimiter.class);
+        DomainEventLog domainEventLog = mock(DomainEventLog.class);
+        when(authRateLimiter.getStats()).thenReturn(Map.of("ipAllowed", 5L));
+        when(domainEventLog.getStats()).thenReturn(Map.of("written", 7L));
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().componentStatsMetrics(authRateLimiter, domainEventLog,
+            mock(MediaGarbageCollector.class), mock(NewsletterDispatcher.class)).bindTo(registry);
+        FunctionCounter allowed = registry.get("auth.rate_limit.allowed").tag("key", "ip").functionCounter();
+        FunctionCounter written = registry.get("events.log.written").functionCounter();
+        assertEquals(5, allowed.count());
+        assertEquals(7, written.count());
+
+        // The counters hold their state weakly; anything only they reference is collected here
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        when(authRateLimiter.getStats()).thenReturn(Map.of("ipAllowed", 42L));
+        when(domainEventLog.getStats()).thenReturn(Map.of("written", 99L));
+
+        assertEquals(42, allowed.count());
+        assertEquals(99, written.count());
+    }
+}
@@ -0,0 +1,114 @@
+package com.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final long WINDOW = 60_000;
+    // Aligned to a window boundary so the tests control how far into a window they are
+    private static final long START = WINDOW * 1_000;
+
+    @Test
+    void rejectsAttemptsOverTheLimitWithinAWindow() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 1_000);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", START + i));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1", START + 10);
+
+        assertTrue(wait > 0 && wait <= 2 * WINDOW, "retry after " + wait);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", START + 10), "other keys are not affected");
+        assertEquals(4, limiter.getAllowedCount());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    void weightsThePreviousWindowByItsOverlap() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(4, WINDOW, 1_000);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("key", START + i);
+        }
+
+        // A quarter into the next window, 3/4 of the previous 4 attempts still count
+        long quarter = START + WINDOW + WINDOW / 4;
+        assertEquals(0, limiter.tryAcquire("key", quarter));
+        assertTrue(limiter.tryAcquire("key", quarter) > 0);
+
+        // Once no earlier attempt overlaps the sliding window, the full limit is available again
+        long later = START + 3 * WINDOW;
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire("key", later) == 0) {
+                allowed++;
+            }
+        }
+        assertEquals(4, allowed);
+    }
+
+    @Test
+    void retryAfterPointsToWhenTheAttemptWouldBeAllowed() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, WINDOW, 1_000);
+        limiter.tryAcquire("key", START);
+        limiter.tryAcquire("key", START);
+
+        long wait = limiter.tryAcquire("key", START + 1_000);
+
+        assertTrue(limiter.tryAcquire("key", START + 1_000 + wait - 2) > 0, "still limited just before");
+        assertEquals(0, limiter.tryAcquire("key", START + 1_000 + wait), "allowed once the wait is over");
+    }
+
+    @Test
+    void keepsLimitingNewKeysWhenTheTableIsFull() {
+        // 64 keys in total, so most stripes are full after a few hundred distinct keys
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, WINDOW, 64);
+
+        for (int key = 0; key < 500; key++) {
+            String ip = "192.168.0." + key;
+            assertEquals(0, limiter.tryAcquire(ip, START));
+            assertEquals(0, limiter.tryAcquire(ip, START));
+            assertTrue(limiter.tryAcquire(ip, START) > 0, "third attempt of " + ip + " must be rejected");
+        }
+        assertEquals(500, limiter.getRejectedCount());
+        assertTrue(limiter.getEvictedCount() > 0);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedKey() {
+        // One key per stripe: a second key in the same stripe pushes the first out
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, WINDOW, 64);
+        String first = "a";
+        String second = sameStripeAs(first);
+
+        assertEquals(0, limiter.tryAcquire(first, START));
+        assertTrue(limiter.tryAcquire(first, START) > 0);
+        assertEquals(0, limiter.tryAcquire(second, START));
+
+        assertEquals(1, limiter.getEvictedCount());
+        assertEquals(0, limiter.tryAcquire(first, START), "evicted key starts over");
+    }
+
+    @Test
+    void purgesKeysIdleForAWholeWindow() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(5, WINDOW, 1_000);
+        limiter.tryAcquire("old", START);
+        limiter.tryAcquire("recent", START + WINDOW);
+
+        assertEquals(2, limiter.purgeIdle(START + WINDOW + 1));
+        assertEquals(1, limiter.purgeIdle(START + 2 * WINDOW));
+        assertEquals(0, limiter.purgeIdle(START + 3 * WINDOW));
+    }
+
+    private static String sameStripeAs(String key) {
+        int stripe = (key.hashCode() & 0x7fffffff) % 64;
+        for (int i = 0; ; i++) {
+            String candidate = "key-" + i;
+            if ((candidate.hashCode() & 0x7fffffff) % 64 == stripe) {
+                return candidate;
+            }
+        }
+    }
+}
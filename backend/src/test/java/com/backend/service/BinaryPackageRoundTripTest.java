@@ -0,0 +1,165 @@
+package com.backend.service;
+
+import com.backend.model.ExportPlan;
+import com.backend.model.PackageManifest;
+import com.backend.model.SerializableFileData;
+import com.backend.model.SerializableFilePackage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryPackageRoundTripTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ChecksumEngine checksumEngine = new ChecksumEngine();
+    private BinaryPackageWriter writer;
+    private BinaryPackageReader reader;
+
+    private Path staging;
+    private Map<String, byte[]> contents;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        writer = new BinaryPackageWriter(objectMapper, checksumEngine, new FileChecksumCache(100));
+        reader = new BinaryPackageReader(objectMapper, checksumEngine);
+        ReflectionTestUtils.setField(reader, "maxEntrySize", DataSize.ofMegabytes(1));
+
+        staging = Files.createDirectory(tempDir.resolve("staging"));
+        contents = new LinkedHashMap<>();
+        // Text is deflated, the photo is stored as is
+        contents.put("notes.txt", "Fed twice a day, likes long walks.\n".repeat(200).getBytes(StandardCharsets.UTF_8));
+        contents.put("photo.jpg", new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3, 4, 5});
+        for (Map.Entry<String, byte[]> content : contents.entrySet()) {
+            Files.write(tempDir.resolve(content.getKey()), content.getValue());
+        }
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Path packageFile = writePackage(plan(), null);
+
+        List<String> names = new ArrayList<>();
+        PackageManifest manifest = reader.read(packageFile, staging, (metadata, staged, checksum) -> {
+            names.add(metadata.getFileName());
+            byte[] expected = contents.get(metadata.getFileName());
+            assertArrayEquals(expected, Files.readAllBytes(staged));
+            assertEquals(checksumEngine.sha256(expected), checksum);
+            assertEquals(checksum, metadata.getChecksum());
+            Files.delete(staged);
+        });
+
+        assertEquals(List.of("notes.txt", "photo.jpg"), names);
+        assertEquals(BinaryPackageFormat.COMPRESSION_DEFLATE, manifest.getEntries().get(0).getCompression());
+        assertEquals(BinaryPackageFormat.COMPRESSION_STORE, manifest.getEntries().get(1).getCompression());
+        assertTrue(manifest.getEntries().get(0).getStoredLength() < contents.get("notes.txt").length);
+
+        SerializableFilePackage header = manifest.getHeader();
+        assertEquals(2, header.getTotalFiles());
+        ChecksumEngine.PackageDigest digest = checksumEngine.newPackageDigest();
+        contents.values().forEach(content -> digest.add(checksumEngine.sha256(content)));
+        assertEquals(digest.finish(), header.getPackageChecksum());
+    }
+
+    @Test
+    void prefetchedSectionsProduceTheSameBytes() throws IOException {
+        byte[] streamed = Files.readAllBytes(writePackage(plan(), null));
+
+        ExportPlan plan = plan();
+        byte[] prefetched;
+        try (FilePrefetcher<BinaryPackageWriter.PreparedSection> prefetcher =
+                 new FilePrefetcher<>(plan.getEntries(), Runnable::run, writer::prepareSection, 4, 1024 * 1024)) {
+            prefetched = Files.readAllBytes(writePackage(plan, prefetcher));
+        }
+
+        assertArrayEquals(streamed, prefetched);
+    }
+
+    @Test
+    void readsTheManifestFromAStream() throws IOException {
+        Path packageFile = writePackage(plan(), null);
+        byte[] bytes = Files.readAllBytes(packageFile);
+
+        PackageManifest fromFile = reader.readManifest(packageFile);
+        PackageManifest fromStream = reader.readManifest(() -> new ByteArrayInputStream(bytes), bytes.length);
+
+        assertEquals(fromFile.getHeader().getPackageChecksum(), fromStream.getHeader().getPackageChecksum());
+        assertEquals(fromFile.getEntries().size(), fromStream.getEntries().size());
+    }
+
+    @Test
+    void rejectsACorruptManifest() throws IOException {
+        Path packageFile = writePackage(plan(), null);
+        byte[] bytes = Files.readAllBytes(packageFile);
+        // Last byte of the manifest, just before the footer
+        bytes[bytes.length - BinaryPackageFormat.FOOTER_SIZE - 1] ^= 0x01;
+        Files.write(packageFile, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> reader.readManifest(packageFile));
+        assertEquals("Package manifest checksum mismatch", e.getMessage());
+    }
+
+    @Test
+    void rejectsASectionLargerThanDeclared() throws IOException {
+        ExportPlan plan = plan();
+        // Deflates to a few bytes but inflates far past the size it claims
+        Files.write(tempDir.resolve("notes.txt"), new byte[512 * 1024]);
+        plan.getEntries().get(0).getMetadata().setFileSize(1024L);
+        Path packageFile = writePackage(plan, null);
+
+        IOException e = assertThrows(IOException.class,
+            () -> reader.read(packageFile, staging, (metadata, staged, checksum) -> Files.delete(staged)));
+        assertEquals("Section for notes.txt is larger than its declared size of 1024 bytes", e.getMessage());
+        try (var staged = Files.list(staging)) {
+            assertEquals(0, staged.count(), "partially staged section is removed");
+        }
+    }
+
+    private ExportPlan plan() {
+        List<ExportPlan.Entry> entries = new ArrayList<>();
+        for (String fileName : contents.keySet()) {
+            Path source = tempDir.resolve(fileName);
+            SerializableFileData metadata = SerializableFileData.builder()
+                .fileName(fileName)
+                .mediaType("photo")
+                .fileSize((long) contents.get(fileName).length)
+                .build();
+            entries.add(new ExportPlan.Entry(metadata, source));
+        }
+        SerializableFilePackage header = SerializableFilePackage.builder()
+            .packageId("package-1")
+            .packageName("Round trip")
+            .build();
+        return new ExportPlan(header, entries);
+    }
+
+    private Path writePackage(ExportPlan plan, FilePrefetcher<BinaryPackageWriter.PreparedSection> prefetcher)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(plan, out, PackageProgressListener.NONE, prefetcher);
+        Path packageFile = Files.createTempFile(tempDir, "package-", ".bin");
+        Files.write(packageFile, out.toByteArray());
+        return packageFile;
+    }
+}
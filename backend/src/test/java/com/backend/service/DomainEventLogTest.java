@@ -0,0 +1,188 @@
+package com.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DomainEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DomainEventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        eventLog = new DomainEventLog();
+        ReflectionTestUtils.setField(eventLog, "enabled", true);
+        ReflectionTestUtils.setField(eventLog, "directory", directory.toString());
+        ReflectionTestUtils.setField(eventLog, "bufferSize", 1024);
+        ReflectionTestUtils.setField(eventLog, "maxFileSize", DataSize.ofMegabytes(64));
+        ReflectionTestUtils.setField(eventLog, "maxFiles", 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLog.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void writesEventsInOrderAsJsonLines() throws IOException {
+        eventLog.start();
+        assertTrue(eventLog.record(DomainEventLog.Type.USER_SIGNED_UP, 7, 0));
+        assertTrue(eventLog.record(DomainEventLog.Type.ANIMAL_CREATED, 7, 42, "Dog \"Rex\"\nline"));
+        eventLog.stop();
+
+        List<JsonNode> events = readEvents();
+        assertEquals(2, events.size());
+        assertEquals("USER_SIGNED_UP", events.get(0).get("type").asText());
+        assertEquals(7, events.get(0).get("actor").asLong());
+        assertFalse(events.get(0).has("subject"), "0 means not applicable and is left out");
+        assertEquals(42, events.get(1).get("subject").asLong());
+        assertEquals("Dog \"Rex\"\nline", events.get(1).get("detail").asText());
+    }
+
+    @Test
+    void reusesSlotsOnceTheWriterHasDrainedThem() throws Exception {
+        eventLog.start();
+        int total = 0;
+        // Several times the capacity, waiting for the writer between rounds so nothing is dropped
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(eventLog.record(DomainEventLog.Type.MESSAGE_SENT, round + 1, ++total));
+            }
+            awaitDrained();
+        }
+        eventLog.stop();
+
+        List<JsonNode> events = readEvents();
+        assertEquals(total, events.size());
+        for (int i = 0; i < total; i++) {
+            assertEquals(i + 1, events.get(i).get("subject").asLong());
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWithoutCountingIt() throws Exception {
+        eventLog.start();
+        int producers = 8;
+        int perProducer = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 1; p <= producers; p++) {
+            long actor = p;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 1; i <= perProducer; i++) {
+                    eventLog.record(DomainEventLog.Type.MESSAGE_SENT, actor, i);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        eventLog.stop();
+
+        long written = (long) eventLog.getStats().get("written");
+        long dropped = (long) eventLog.getStats().get("dropped");
+        assertEquals(producers * perProducer, written + dropped);
+
+        List<JsonNode> events = readEvents();
+        assertEquals(written, events.size());
+        Set<String> distinct = new HashSet<>();
+        long[] lastSubject = new long[producers + 1];
+        for (JsonNode event : events) {
+            int actor = event.get("actor").asInt();
+            long subject = event.get("subject").asLong();
+            assertTrue(distinct.add(actor + "/" + subject), "event written twice: " + actor + "/" + subject);
+            assertTrue(subject > lastSubject[actor], "events of one producer stay in order");
+            lastSubject[actor] = subject;
+        }
+    }
+
+    @Test
+    void recordsAfterCommitOnlyWhenTheTransactionCommits() throws Exception {
+        eventLog.start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        eventLog.recordAfterCommit(DomainEventLog.Type.USER_SIGNED_UP, 1, 0);
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(0L, eventLog.getStats().get("written"));
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        // Rolled back: the synchronizations are discarded without afterCommit
+        TransactionSynchronizationManager.initSynchronization();
+        eventLog.recordAfterCommit(DomainEventLog.Type.USER_SIGNED_UP, 2, 0);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // No transaction: recorded right away
+        eventLog.recordAfterCommit(DomainEventLog.Type.MESSAGE_SENT, 3, 4);
+        eventLog.stop();
+
+        List<JsonNode> events = readEvents();
+        assertEquals(2, events.size());
+        assertEquals(1, events.get(0).get("actor").asLong());
+        assertEquals(3, events.get(1).get("actor").asLong());
+    }
+
+    @Test
+    void dropsEventsWhenDisabled() {
+        ReflectionTestUtils.setField(eventLog, "enabled", false);
+        eventLog.start();
+
+        assertFalse(eventLog.record(DomainEventLog.Type.SESSION_OPENED, 1, 0));
+        assertEquals(0, eventLog.getStats().get("capacity"));
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (((Number) eventLog.getStats().get("pending")).longValue() > 0) {
+            assertTrue(System.nanoTime() < deadline, "writer did not drain the buffer");
+            Thread.sleep(1);
+        }
+    }
+
+    private List<JsonNode> readEvents() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.sorted().toList();
+        }
+        List<JsonNode> events = new ArrayList<>();
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file)) {
+                events.add(objectMapper.readTree(line));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,125 @@
+package com.backend.service;
+
+import com.backend.model.AnimalCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewsletterDigestAccumulatorTest {
+
+    private static final long WINDOW_MINUTES = 60;
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(WINDOW_MINUTES);
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void replaysPendingEventsAfterARestart() {
+        NewsletterDigestAccumulator before = accumulator();
+        before.add(event(1, "Dog"));
+        before.add(event(2, "Dog"));
+        before.add(event(3, "Cat"));
+
+        NewsletterDigestAccumulator after = accumulator();
+        after.recoverJournal();
+
+        assertEquals(3, after.getPendingCount());
+        Map<String, List<AnimalCreatedEvent>> due = after.takeDue(System.currentTimeMillis() + WINDOW_MILLIS);
+        assertEquals(List.of(1L, 2L), animalIds(due.get("Dog")));
+        assertEquals(List.of(3L), animalIds(due.get("Cat")));
+    }
+
+    @Test
+    void keepsTheOriginalWindowAcrossARestart() throws IOException {
+        long now = System.currentTimeMillis();
+        writeJournal(
+            entry(now - WINDOW_MILLIS - 1, event(1, "Dog")),
+            entry(now - 1_000, event(2, "Cat")));
+
+        NewsletterDigestAccumulator accumulator = accumulator();
+        accumulator.recoverJournal();
+        Map<String, List<AnimalCreatedEvent>> due = accumulator.takeDue(now);
+
+        assertEquals(List.of("Dog"), List.copyOf(due.keySet()), "only the window that already elapsed is due");
+        assertEquals(1, accumulator.getPendingCount());
+    }
+
+    @Test
+    void skipsDuplicatesAndATornLastLine() throws IOException {
+        long now = System.currentTimeMillis();
+        writeJournal(
+            entry(now, event(1, "Dog")),
+            entry(now, event(1, "Dog")),
+            entry(now, event(2, "Dog")),
+            "{\"receivedAtMillis\":" + now + ",\"event\":{\"animalId\":3,\"spec");
+
+        NewsletterDigestAccumulator accumulator = accumulator();
+        accumulator.recoverJournal();
+
+        assertEquals(2, accumulator.getPendingCount());
+        assertEquals(List.of(1L, 2L), animalIds(accumulator.takeDue(now + WINDOW_MILLIS).get("Dog")));
+    }
+
+    @Test
+    void compactedJournalOnlyReplaysWhatIsStillPending() {
+        NewsletterDigestAccumulator before = accumulator();
+        before.add(event(1, "Dog"));
+        before.add(event(2, "Cat"));
+        before.takeDue(System.currentTimeMillis() + WINDOW_MILLIS);
+        before.add(event(3, "Cat"));
+        before.compactJournal();
+
+        NewsletterDigestAccumulator after = accumulator();
+        after.recoverJournal();
+
+        assertEquals(1, after.getPendingCount());
+        Map<String, List<AnimalCreatedEvent>> due = after.takeDue(System.currentTimeMillis() + WINDOW_MILLIS);
+        assertEquals(List.of(3L), animalIds(due.get("Cat")));
+        assertTrue(Files.notExists(journalDir.resolve("digest.journal.tmp")));
+    }
+
+    @Test
+    void startsEmptyWithoutAJournal() {
+        NewsletterDigestAccumulator accumulator = accumulator();
+        accumulator.recoverJournal();
+
+        assertEquals(0, accumulator.getPendingCount());
+    }
+
+    private NewsletterDigestAccumulator accumulator() {
+        NewsletterDigestAccumulator accumulator = new NewsletterDigestAccumulator(objectMapper);
+        ReflectionTestUtils.setField(accumulator, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(accumulator, "windowMinutes", WINDOW_MINUTES);
+        return accumulator;
+    }
+
+    private static AnimalCreatedEvent event(long animalId, String species) {
+        return new AnimalCreatedEvent(animalId, 10L, "Animal " + animalId, species, "Mixed", 2);
+    }
+
+    private String entry(long receivedAtMillis, AnimalCreatedEvent event) throws IOException {
+        return objectMapper.writeValueAsString(Map.of("receivedAtMillis", receivedAtMillis, "event", event));
+    }
+
+    private void writeJournal(String... lines) throws IOException {
+        Files.writeString(journalDir.resolve("digest.journal"), String.join("\n", lines), StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> animalIds(List<AnimalCreatedEvent> events) {
+        return events.stream().map(AnimalCreatedEvent::animalId).toList();
+    }
+}
@@ -8,7 +8,7 @@ document.addEventListener('DOMContentLoaded', function() {
   if (existingToken) {
     try {
       const decodedToken = jwt_decode(existingToken);
-      if (decodedToken.isAdmin) {
+      if (decodedToken.adm || decodedToken.isAdmin) {
         window.location.href = 'Dashboard.html';
         return;
       }
@@ -47,6 +47,7 @@ document.addEventListener('DOMContentLoaded', function() {
       if (data.token) {
      
         localStorage.setItem('adminToken', data.token);
+        localStorage.setItem('adminEmail', email);
         
      
         window.location.href = 'Dashboard.html';
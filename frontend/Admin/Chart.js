@@ -193,9 +193,10 @@ function processDataForChart(data, type) {
     if (type === 'users') {
        
         data.forEach(user => {
-            if (!user.CREATEDAT) return;
+            const createdAt = user.createdAt || user.CREATEDAT;
+            if (!createdAt) return;
             
-            const createdDate = new Date(user.CREATEDAT);
+            const createdDate = new Date(createdAt);
             const dateString = createdDate.toISOString().split('T')[0];
             
             const dayRecord = result.find(day => day.date === dateString);
@@ -16,14 +16,14 @@ document.addEventListener('DOMContentLoaded', function() {
     try {
         const decodedToken = jwt_decode(token);
         
-        if (!decodedToken.isAdmin) {
+        if (!(decodedToken.adm || decodedToken.isAdmin)) {
             console.error('Token does not contain admin privileges');
             localStorage.removeItem('adminToken');
             window.location.href = 'Admin.html';
             return;
         }
         
-        document.getElementById('adminEmail').textContent = decodedToken.email || 'Admin';
+        document.getElementById('adminEmail').textContent = localStorage.getItem('adminEmail') || decodedToken.email || 'Admin';
         
         // Navigation between sections
         const navLinks = document.querySelectorAll('.nav-menu a');
@@ -48,6 +48,7 @@ document.addEventListener('DOMContentLoaded', function() {
         
         document.getElementById('logoutBtn').addEventListener('click', function() {
             localStorage.removeItem('adminToken');
+            localStorage.removeItem('adminEmail');
             localStorage.removeItem('adminDashboardData');
             localStorage.removeItem('adminDashboardLastFetch');
             window.location.href = 'Admin.html';
@@ -87,7 +88,9 @@ async function loadDashboardDataWithCache(forceRefresh = false) {
             throw new Error('No authentication token');
         }
         
-        const response = await fetch('http://localhost:3000/users/all/details', {
+        // Only the newest users are needed for the summary and signup chart;
+        // the Users section pages through the rest on demand
+        const response = await fetch('http://localhost:3000/users/all/page?sort=createdAt&direction=desc&limit=200', {
             method: 'GET',
             headers: {
                 'Content-Type': 'application/json',
@@ -99,10 +102,10 @@ async function loadDashboardDataWithCache(forceRefresh = false) {
             throw new Error('Failed to fetch dashboard data');
         }
         
-        const usersData = await response.json();
+        const usersPage = await response.json();
         
         // Process the data to get summary information
-        const dashboardData = processApiData(usersData);
+        const dashboardData = processApiData(usersPage.users || [], usersPage.total);
         
         updateDashboardUI(dashboardData);
         
@@ -131,8 +134,8 @@ async function loadDashboardDataWithCache(forceRefresh = false) {
 }
 
 // Process API data to get summary information
-function processApiData(usersData) {
-    let totalUsers = usersData.length;
+function processApiData(usersData, total) {
+    let totalUsers = total !== undefined ? total : usersData.length;
     let totalPets = 0;
     let allAnimals = [];
     
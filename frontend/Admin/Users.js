@@ -1,7 +1,148 @@
-function initUsersView(users) {
+const USERS_API_URL = 'http://localhost:3000/users/all';
+const USERS_PAGE_SIZE = 50;
+
+// Keyset pagination state: cursors[i] is the cursor that loads page i
+const usersState = {
+    search: '',
+    sort: 'id',
+    direction: 'asc',
+    cursors: [null],
+    pageIndex: 0,
+    users: [],
+    total: null
+};
+
+function initUsersView() {
     const usersSection = document.getElementById('users');
-    if (usersSection && users) {
-        populateUsersTable(users, usersSection);
+    if (!usersSection) return;
+
+    if (!usersSection.dataset.initialized) {
+        usersSection.dataset.initialized = 'true';
+        setupUsersControls(usersSection);
+        loadUsersPage(0);
+    } else {
+        // Dashboard refresh: reload the page being viewed
+        loadUsersPage(usersState.pageIndex);
+    }
+}
+
+function setupUsersControls(usersSection) {
+    const searchInput = usersSection.querySelector('#userSearch');
+    const sortSelect = usersSection.querySelector('#userSort');
+    let searchTimer = null;
+
+    if (searchInput) {
+        searchInput.addEventListener('input', () => {
+            clearTimeout(searchTimer);
+            searchTimer = setTimeout(() => {
+                usersState.search = searchInput.value.trim();
+                resetUsersPaging();
+            }, 300);
+        });
+    }
+
+    if (sortSelect) {
+        sortSelect.addEventListener('change', () => {
+            const [sort, direction] = sortSelect.value.split(':');
+            usersState.sort = sort;
+            usersState.direction = direction;
+            resetUsersPaging();
+        });
+    }
+
+    usersSection.querySelector('#usersPrev')?.addEventListener('click', () => loadUsersPage(usersState.pageIndex - 1));
+    usersSection.querySelector('#usersNext')?.addEventListener('click', () => loadUsersPage(usersState.pageIndex + 1));
+    usersSection.querySelector('#exportUsersCsv')?.addEventListener('click', () => exportUsers('csv'));
+    usersSection.querySelector('#exportUsersNdjson')?.addEventListener('click', () => exportUsers('ndjson'));
+}
+
+function resetUsersPaging() {
+    usersState.cursors = [null];
+    usersState.total = null;
+    loadUsersPage(0);
+}
+
+async function loadUsersPage(pageIndex) {
+    if (pageIndex < 0 || pageIndex >= usersState.cursors.length) return;
+
+    const token = localStorage.getItem('adminToken');
+    if (!token) return;
+
+    const params = new URLSearchParams({
+        sort: usersState.sort,
+        direction: usersState.direction,
+        limit: USERS_PAGE_SIZE
+    });
+    if (usersState.search) params.set('search', usersState.search);
+    const cursor = usersState.cursors[pageIndex];
+    if (cursor) params.set('cursor', cursor);
+
+    try {
+        const response = await fetch(`${USERS_API_URL}/page?${params}`, {
+            headers: { 'Authorization': `Bearer ${token}` }
+        });
+        if (!response.ok) {
+            throw new Error('Failed to load users');
+        }
+
+        const page = await response.json();
+        usersState.pageIndex = pageIndex;
+        usersState.users = page.users || [];
+        if (page.total !== undefined) {
+            usersState.total = page.total;
+        }
+        usersState.cursors.length = pageIndex + 1;
+        if (page.hasMore) {
+            usersState.cursors.push(page.nextCursor);
+        }
+
+        populateUsersTable(usersState.users, document.getElementById('users'));
+        updateUsersPager();
+    } catch (error) {
+        console.error('Error loading users page:', error);
+    }
+}
+
+function updateUsersPager() {
+    const info = document.getElementById('usersPageInfo');
+    if (info) {
+        const first = usersState.pageIndex * USERS_PAGE_SIZE + 1;
+        const last = usersState.pageIndex * USERS_PAGE_SIZE + usersState.users.length;
+        const total = usersState.total !== null ? ` of ${usersState.total}` : '';
+        info.textContent = usersState.users.length ? `${first}-${last}${total}` : 'No users found';
+    }
+    const prev = document.getElementById('usersPrev');
+    const next = document.getElementById('usersNext');
+    if (prev) prev.disabled = usersState.pageIndex === 0;
+    if (next) next.disabled = usersState.pageIndex >= usersState.cursors.length - 1;
+}
+
+// Stream the export to a file; the server writes it straight from a database cursor
+async function exportUsers(format) {
+    const token = localStorage.getItem('adminToken');
+    if (!token) return;
+
+    const params = new URLSearchParams({ format });
+    if (usersState.search) params.set('search', usersState.search);
+
+    try {
+        const response = await fetch(`${USERS_API_URL}/export?${params}`, {
+            headers: { 'Authorization': `Bearer ${token}` }
+        });
+        if (!response.ok) {
+            throw new Error('Export failed');
+        }
+        const blob = await response.blob();
+        const link = document.createElement('a');
+        link.href = URL.createObjectURL(blob);
+        link.download = format === 'csv' ? 'users.csv' : 'users.ndjson';
+        document.body.appendChild(link);
+        link.click();
+        link.remove();
+        URL.revokeObjectURL(link.href);
+    } catch (error) {
+        console.error('Error exporting users:', error);
+        alert('Failed to export users');
     }
 }
 
@@ -26,8 +167,8 @@ function populateUsersTable(users, container) {
                 <th>Name</th>
                 <th>Email</th>
                 <th>Phone</th>
+                <th>City</th>
                 <th>Created At</th>
-                <th>Pets</th>
                 <th>Actions</th>
             </tr>
         </thead>
@@ -35,11 +176,11 @@ function populateUsersTable(users, container) {
             ${users.map(user => `
                 <tr>
                     <td>${user.USERID}</td>
-                    <td>${user.FIRSTNAME} ${user.LASTNAME}</td>
-                    <td>${user.EMAIL}</td>
-                    <td>${user.PHONE || 'N/A'}</td>
-                    <td>${formatDate(user.CREATEDAT)}</td>
-                    <td>${user.animals ? user.animals.length : 0}</td>
+                    <td>${user.FIRSTNAME || ''} ${user.LASTNAME || ''}</td>
+                    <td>${user.email || ''}</td>
+                    <td>${user.phone || 'N/A'}</td>
+                    <td>${user.address && user.address.CITY ? user.address.CITY : 'N/A'}</td>
+                    <td>${formatDate(user.createdAt)}</td>
                     <td>
                         <button class="view-btn" data-user-id="${user.USERID}">View</button>
                         <button class="delete-btn" data-user-id="${user.USERID}">Delete</button>
@@ -107,7 +248,7 @@ async function handleDeleteUser(userId, users) {
                 }
                 
                 
-                dashboardData.totalUsers = dashboardData.users.length;
+                dashboardData.totalUsers = Math.max(0, dashboardData.totalUsers - 1);
                 dashboardData.totalPets = dashboardData.animals ? dashboardData.animals.length : 0;
                 
                
@@ -183,15 +324,15 @@ function showUserDetails(user) {
                     <div class="user-info">
                         <h3>User Information</h3>
                         <p><strong>ID:</strong> ${user.USERID}</p>
-                        <p><strong>Email:</strong> ${user.EMAIL}</p>
-                        <p><strong>Phone:</strong> ${user.PHONE || 'N/A'}</p>
-                        <p><strong>Joined:</strong> ${formatDate(user.CREATEDAT)}</p>
+                        <p><strong>Email:</strong> ${user.email || 'N/A'}</p>
+                        <p><strong>Phone:</strong> ${user.phone || 'N/A'}</p>
+                        <p><strong>Joined:</strong> ${formatDate(user.createdAt)}</p>
                         
                         <h3>Address</h3>
                         <p>${user.address ? 
-                            `${user.address.STREET || ''}<br>
-                            ${user.address.CITY || ''} ${user.address.STATE || ''} ${user.address.ZIPCODE || ''}<br>
-                            ${user.address.COUNTRY || ''}` : 'No address information'}</p>
+                            `${user.address.street || ''}<br>
+                            ${user.address.CITY || ''} ${user.address.COUNTY || ''} ${user.address.zipCode || ''}<br>
+                            ${user.address.country || ''}` : 'No address information'}</p>
                         
                         <h3>Pets</h3>
                         ${animalsHtml}
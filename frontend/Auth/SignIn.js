@@ -39,16 +39,14 @@ document
         const data = await response.json();
         
         localStorage.setItem("Token", data.token);
-        const decoded = jwt_decode(data.token);
 
-        user.setUser({
-          id: decoded.id,
-          email: decoded.email,
-          firstName: decoded.firstName,
-          lastName: decoded.lastName,
-          phone: decoded.phone,
-          createdAt: decoded.createdAt 
+        // The token only carries the user id; display fields come from /users/me
+        const profileResponse = await fetch(`${API_URL}/users/me`, {
+          headers: { "Authorization": `Bearer ${data.token}` },
         });
+        if (profileResponse.ok) {
+          user.setUser(await profileResponse.json());
+        }
         await registerUserSession(data.token);
 
         window.location.href = "../Home/Home.html";